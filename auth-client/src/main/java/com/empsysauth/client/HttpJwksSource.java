@@ -0,0 +1,64 @@
+package com.empsysauth.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Fetches the key set over HTTP with a conditional GET: when the auth service
+ * answers 304 Not Modified, the previous document is reused without parsing a body.
+ */
+public class HttpJwksSource implements JwksSource {
+
+	private final URI uri;
+	private final Duration timeout;
+	private final HttpClient client;
+
+	// Only touched by the fetching thread, which JwksKeyCache serializes
+	private String etag;
+	private String body;
+
+	public HttpJwksSource(URI uri, Duration timeout) {
+		this.uri = uri;
+		this.timeout = timeout;
+		this.client = HttpClient.newBuilder()
+				.connectTimeout(timeout)
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.build();
+	}
+
+	@Override
+	public String fetch() throws IOException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+				.timeout(timeout)
+				.header("Accept", "application/jwk-set+json, application/json")
+				.GET();
+		if (etag != null && body != null) {
+			request.header("If-None-Match", etag);
+		}
+		HttpResponse<String> response;
+		try {
+			response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while fetching " + uri, e);
+		}
+		if (response.statusCode() == 304 && body != null) {
+			return body;
+		}
+		if (response.statusCode() != 200) {
+			throw new IOException("GET " + uri + " returned " + response.statusCode());
+		}
+		etag = response.headers().firstValue("ETag").orElse(null);
+		body = response.body();
+		return body;
+	}
+
+	@Override
+	public String toString() {
+		return uri.toString();
+	}
+}
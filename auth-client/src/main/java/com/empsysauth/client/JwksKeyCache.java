@@ -0,0 +1,186 @@
+package com.empsysauth.client;
+
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of the auth service's verification keys, by kid.
+ *
+ * Lookups are a volatile read of an immutable map. A background thread refreshes
+ * the keys every {@code refreshInterval} (with +/-10% jitter, so a fleet of
+ * services does not poll in lockstep) and retries failures with jittered
+ * exponential backoff, up to {@code maxBackoff}. A kid that is not in the map,
+ * typically a key the auth service has just rotated in, triggers an immediate
+ * refetch, at most once per {@code minRefetchInterval} so tokens with made-up
+ * kids cannot turn into a flood of requests.
+ *
+ * When a fetch fails, the last good keys stay in use: an auth service outage
+ * does not stop already issued tokens from verifying.
+ */
+public class JwksKeyCache implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(JwksKeyCache.class);
+
+	private static final long INITIAL_BACKOFF_MILLIS = 1000;
+
+	private final JwksSource source;
+	private final Duration refreshInterval;
+	private final Duration minRefetchInterval;
+	private final Duration maxBackoff;
+	private final ScheduledExecutorService scheduler;
+
+	// Serializes fetches; lookups never take it
+	private final ReentrantLock fetchLock = new ReentrantLock();
+
+	private volatile Map<String, PublicKey> keys = Map.of();
+	private volatile long lastAttemptNanos;
+	private volatile boolean everAttempted;
+	// Guarded by fetchLock
+	private int consecutiveFailures;
+
+	public JwksKeyCache(JwksSource source, Duration refreshInterval, Duration minRefetchInterval, Duration maxBackoff) {
+		this.source = source;
+		this.refreshInterval = refreshInterval;
+		this.minRefetchInterval = minRefetchInterval;
+		this.maxBackoff = maxBackoff;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "jwks-refresh");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Load the keys once and schedule background refreshes. Returns even if the
+	 * first load fails; it is then retried with backoff.
+	 */
+	public void start() {
+		// First load on the caller's thread, so the verifier is usable right after startup
+		refreshAndReschedule();
+	}
+
+	/**
+	 * @return The key, refetching the key set on a miss if allowed, or null if the kid is unknown
+	 */
+	public PublicKey key(String kid) {
+		if (kid == null) {
+			return null;
+		}
+		PublicKey key = keys.get(kid);
+		if (key != null || !refetchAllowed()) {
+			return key;
+		}
+		fetchLock.lock();
+		try {
+			// Concurrent misses for the same new kid share the first caller's fetch
+			key = keys.get(kid);
+			if (key == null && refetchAllowed()) {
+				logger.info("Unknown kid {}, refetching keys from {}", kid, source);
+				fetch();
+				key = keys.get(kid);
+			}
+			return key;
+		} finally {
+			fetchLock.unlock();
+		}
+	}
+
+	/**
+	 * @return The kids currently trusted
+	 */
+	public Map<String, PublicKey> keys() {
+		return keys;
+	}
+
+	private boolean refetchAllowed() {
+		return !everAttempted || System.nanoTime() - lastAttemptNanos >= minRefetchInterval.toNanos();
+	}
+
+	private void refreshAndReschedule() {
+		long delayMillis;
+		fetchLock.lock();
+		try {
+			delayMillis = fetch() ? jitter(refreshInterval.toMillis(), 0.9, 1.1) : backoffMillis();
+		} finally {
+			fetchLock.unlock();
+		}
+		try {
+			scheduler.schedule(this::refreshAndReschedule, delayMillis, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			logger.debug("Key refresh stopped: cache closed");
+		}
+	}
+
+	/**
+	 * 1s, 2s, 4s, ... capped at maxBackoff, each scaled by a random 50-100%. Caller holds fetchLock.
+	 */
+	private long backoffMillis() {
+		long backoff = INITIAL_BACKOFF_MILLIS << Math.min(20, Math.max(0, consecutiveFailures - 1));
+		return jitter(Math.min(maxBackoff.toMillis(), backoff), 0.5, 1.0);
+	}
+
+	private static long jitter(long millis, double min, double max) {
+		return (long) (millis * ThreadLocalRandom.current().nextDouble(min, max));
+	}
+
+	/**
+	 * Replace the keys with the source's current set. Caller holds fetchLock.
+	 *
+	 * @return false if the fetch failed and the previous keys were kept
+	 */
+	private boolean fetch() {
+		lastAttemptNanos = System.nanoTime();
+		everAttempted = true;
+		try {
+			Map<String, PublicKey> fetched = parse(source.fetch());
+			if (fetched.isEmpty()) {
+				throw new IllegalStateException("key set has no usable keys");
+			}
+			if (!fetched.keySet().equals(keys.keySet())) {
+				logger.info("Verification keys from {}: {}", source, fetched.keySet());
+			}
+			keys = fetched;
+			consecutiveFailures = 0;
+			return true;
+		} catch (Exception e) {
+			consecutiveFailures++;
+			logger.warn("Could not refresh keys from {} ({} consecutive failures), keeping {} key(s): {}",
+					source, consecutiveFailures, keys.size(), e.getMessage());
+			return false;
+		}
+	}
+
+	private static Map<String, PublicKey> parse(String json) {
+		JwkSet set = Jwks.setParser().build().parse(json);
+		Map<String, PublicKey> parsed = new HashMap<>();
+		for (Jwk<?> jwk : set.getKeys()) {
+			Key key = jwk.toKey();
+			// Tokens without a kid cannot be matched to a key and are rejected
+			if (jwk.getId() != null && key instanceof PublicKey publicKey) {
+				parsed.put(jwk.getId(), publicKey);
+			}
+		}
+		return Collections.unmodifiableMap(parsed);
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+}
@@ -0,0 +1,16 @@
+package com.empsysauth.client;
+
+import java.io.IOException;
+
+/**
+ * Where the verifier gets the auth service's JSON Web Key Set from.
+ */
+@FunctionalInterface
+public interface JwksSource {
+
+	/**
+	 * @return The current key set document (RFC 7517)
+	 * @throws IOException if it cannot be fetched; the verifier keeps its last keys and retries
+	 */
+	String fetch() throws IOException;
+}
@@ -0,0 +1,213 @@
+package com.empsysauth.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Verifies auth service access tokens locally, with no call to the auth service
+ * per request.
+ *
+ * Keys come from the service's JWKS endpoint through a {@link JwksKeyCache},
+ * which follows key rotation on its own. Verified tokens are kept in a bounded
+ * cache, keyed by the token's SHA-256 and expiring with the token, so a
+ * client that resends its token costs one hash and one map lookup.
+ *
+ * <pre>
+ * TokenVerifier verifier = TokenVerifier.builder(URI.create("http://auth:9090/.well-known/jwks.json")).build();
+ * VerifiedToken token = verifier.verify(bearerToken); // null if invalid
+ * </pre>
+ *
+ * Revocation is not visible locally: a revoked token stays valid here until it
+ * expires (access tokens are short-lived). Services that must see revocations
+ * immediately should use the auth service's introspection endpoint.
+ */
+public class TokenVerifier implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(TokenVerifier.class);
+
+	private final JwksKeyCache keyCache;
+	private final JwtParser parser;
+	private final Cache<String, VerifiedToken> cache;
+	private final long clockSkewMillis;
+
+	private TokenVerifier(JwksSource source, Builder builder) {
+		this.keyCache = new JwksKeyCache(source, builder.refreshInterval, builder.minRefetchInterval,
+				builder.maxBackoff);
+		this.clockSkewMillis = builder.clockSkew.toMillis();
+		this.parser = Jwts.parser()
+				.clockSkewSeconds(builder.clockSkew.toSeconds())
+				.keyLocator(new LocatorAdapter<Key>() {
+					@Override
+					protected Key locate(ProtectedHeader header) {
+						return keyCache.key(header.getKeyId());
+					}
+				})
+				.build();
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(builder.cacheSize)
+				.expireAfter(Expiry.creating((String key, VerifiedToken token) ->
+						Duration.ofMillis(Math.max(0, token.getExpiresAtMillis() + clockSkewMillis - System.currentTimeMillis()))))
+				.build();
+	}
+
+	/**
+	 * @param jwksUri The auth service's key set, e.g. http://auth:9090/.well-known/jwks.json
+	 */
+	public static Builder builder(URI jwksUri) {
+		return new Builder(jwksUri);
+	}
+
+	public static Builder builder(JwksSource source) {
+		return new Builder(source);
+	}
+
+	/**
+	 * Verify a compact access token.
+	 *
+	 * @return The verified token, or null if the token is malformed, forged, expired
+	 *         or signed by a key the auth service no longer publishes
+	 */
+	public VerifiedToken verify(String token) {
+		if (token == null || token.isEmpty()) {
+			return null;
+		}
+		VerifiedToken verified = cache.get(hash(token), key -> parse(token));
+		if (verified != null && verified.isExpired(System.currentTimeMillis() - clockSkewMillis)) {
+			// Caffeine expires lazily; never hand out a token past its exp (plus the allowed skew)
+			return null;
+		}
+		return verified;
+	}
+
+	/**
+	 * @return Number of tokens currently cached
+	 */
+	public long cachedTokens() {
+		return cache.estimatedSize();
+	}
+
+	private VerifiedToken parse(String token) {
+		try {
+			Claims claims = parser.parseSignedClaims(token).getPayload();
+			if (claims.getSubject() == null || claims.getExpiration() == null) {
+				return null;
+			}
+			return VerifiedToken.from(claims);
+		} catch (JwtException | IllegalArgumentException e) {
+			logger.debug("Token verification failed: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private static String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	@Override
+	public void close() {
+		keyCache.close();
+	}
+
+	public static final class Builder {
+		private final JwksSource source;
+		private final URI jwksUri;
+		private Duration refreshInterval = Duration.ofMinutes(5);
+		private Duration minRefetchInterval = Duration.ofSeconds(10);
+		private Duration maxBackoff = Duration.ofMinutes(5);
+		private Duration httpTimeout = Duration.ofSeconds(5);
+		private Duration clockSkew = Duration.ofSeconds(30);
+		private long cacheSize = 10_000;
+
+		private Builder(URI jwksUri) {
+			this.jwksUri = jwksUri;
+			this.source = null;
+		}
+
+		private Builder(JwksSource source) {
+			this.jwksUri = null;
+			this.source = source;
+		}
+
+		/**
+		 * How often keys are refreshed in the background (default 5 minutes, +/-10% jitter).
+		 */
+		public Builder refreshInterval(Duration refreshInterval) {
+			this.refreshInterval = refreshInterval;
+			return this;
+		}
+
+		/**
+		 * Minimum time between refetches triggered by unknown kids (default 10 seconds).
+		 */
+		public Builder minRefetchInterval(Duration minRefetchInterval) {
+			this.minRefetchInterval = minRefetchInterval;
+			return this;
+		}
+
+		/**
+		 * Upper bound of the retry delay after failed refreshes (default 5 minutes).
+		 */
+		public Builder maxBackoff(Duration maxBackoff) {
+			this.maxBackoff = maxBackoff;
+			return this;
+		}
+
+		/**
+		 * Connect and read timeout for JWKS requests (default 5 seconds).
+		 */
+		public Builder httpTimeout(Duration httpTimeout) {
+			this.httpTimeout = httpTimeout;
+			return this;
+		}
+
+		/**
+		 * Tolerated clock difference with the auth service for exp/nbf (default 30 seconds).
+		 */
+		public Builder clockSkew(Duration clockSkew) {
+			this.clockSkew = clockSkew;
+			return this;
+		}
+
+		/**
+		 * Maximum number of verified tokens kept (default 10000).
+		 */
+		public Builder cacheSize(long cacheSize) {
+			this.cacheSize = cacheSize;
+			return this;
+		}
+
+		/**
+		 * Create the verifier and load the keys. Never fails because the auth
+		 * service is unreachable: tokens are rejected until the first successful load.
+		 */
+		public TokenVerifier build() {
+			TokenVerifier verifier = new TokenVerifier(source != null ? source : new HttpJwksSource(jwksUri, httpTimeout),
+					this);
+			verifier.keyCache.start();
+			return verifier;
+		}
+	}
+}
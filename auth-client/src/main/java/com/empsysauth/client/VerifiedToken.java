@@ -0,0 +1,78 @@
+package com.empsysauth.client;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An access token whose signature and expiry have been checked. Instances are
+ * shared between requests through the verified-token cache and are immutable.
+ */
+public final class VerifiedToken {
+
+	/**
+	 * Claim holding the user's role names (without the ROLE_ prefix), e.g. ["ADMIN"].
+	 */
+	public static final String ROLES_CLAIM = "roles";
+
+	private final String username;
+	private final String jti;
+	private final long expiresAtMillis;
+	private final Claims claims;
+	private final List<String> roles;
+
+	private VerifiedToken(String username, String jti, long expiresAtMillis, Claims claims, List<String> roles) {
+		this.username = username;
+		this.jti = jti;
+		this.expiresAtMillis = expiresAtMillis;
+		this.claims = claims;
+		this.roles = roles;
+	}
+
+	static VerifiedToken from(Claims claims) {
+		return new VerifiedToken(claims.getSubject(), claims.getId(), claims.getExpiration().getTime(), claims,
+				roles(claims));
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public String getJti() {
+		return jti;
+	}
+
+	public long getExpiresAtMillis() {
+		return expiresAtMillis;
+	}
+
+	public Claims getClaims() {
+		return claims;
+	}
+
+	/**
+	 * @return Role names from the roles claim, e.g. "ADMIN"; prefix with "ROLE_" for Spring Security authorities
+	 */
+	public List<String> getRoles() {
+		return roles;
+	}
+
+	public boolean isExpired(long nowMillis) {
+		return nowMillis >= expiresAtMillis;
+	}
+
+	private static List<String> roles(Claims claims) {
+		Object value = claims.get(ROLES_CLAIM);
+		if (!(value instanceof List<?> names) || names.isEmpty()) {
+			return List.of();
+		}
+		List<String> roles = new ArrayList<>(names.size());
+		for (Object name : names) {
+			if (name instanceof String role && !role.isEmpty()) {
+				roles.add(role);
+			}
+		}
+		return List.copyOf(roles);
+	}
+}
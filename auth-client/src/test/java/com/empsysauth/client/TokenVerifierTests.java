@@ -0,0 +1,108 @@
+package com.empsysauth.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TokenVerifierTests {
+
+	private final AtomicReference<String> jwks = new AtomicReference<>();
+	private final AtomicInteger fetches = new AtomicInteger();
+	private final JwksSource source = () -> {
+		fetches.incrementAndGet();
+		String current = jwks.get();
+		if (current == null) {
+			throw new IOException("auth service down");
+		}
+		return current;
+	};
+
+	@Test
+	void unknownKidTriggersRefetchSoRotatedKeysVerifyWithoutRestart() throws Exception {
+		KeyPair first = Jwts.SIG.ES256.keyPair().build();
+		KeyPair second = Jwts.SIG.ES256.keyPair().build();
+		publish(Map.of("k1", first));
+
+		try (TokenVerifier verifier = TokenVerifier.builder(source)
+				.refreshInterval(Duration.ofHours(1))
+				.minRefetchInterval(Duration.ZERO)
+				.build()) {
+			String token = token("k1", first, "alice");
+			VerifiedToken verified = verifier.verify(token);
+			assertNotNull(verified);
+			assertEquals("alice", verified.getUsername());
+			assertEquals(List.of("USER"), verified.getRoles());
+			assertEquals(1, fetches.get());
+
+			// Served from the verified-token cache
+			verifier.verify(token);
+			assertEquals(1, verifier.cachedTokens());
+
+			// The auth service rotates: the new kid is fetched on first sight
+			publish(Map.of("k1", first, "k2", second));
+			assertNotNull(verifier.verify(token("k2", second, "bob")));
+			assertEquals(2, fetches.get());
+
+			// Forged, tampered and garbage tokens are rejected
+			assertNull(verifier.verify(token("k2", Jwts.SIG.ES256.keyPair().build(), "mallory")));
+			assertNull(verifier.verify(token.substring(0, token.length() - 4) + "AAAA"));
+			assertNull(verifier.verify("not.a.token"));
+
+			// A failed refetch keeps the last good keys
+			jwks.set(null);
+			assertNull(verifier.verify(token("k3", Jwts.SIG.ES256.keyPair().build(), "carol")));
+			assertNotNull(verifier.verify(token("k1", first, "carol")));
+		}
+	}
+
+	@Test
+	void unknownKidRefetchesAreRateLimited() throws Exception {
+		KeyPair key = Jwts.SIG.ES256.keyPair().build();
+		publish(Map.of("k1", key));
+
+		try (TokenVerifier verifier = TokenVerifier.builder(source)
+				.refreshInterval(Duration.ofHours(1))
+				.minRefetchInterval(Duration.ofHours(1))
+				.build()) {
+			assertNotNull(verifier.verify(token("k1", key, "alice")));
+			for (int i = 0; i < 10; i++) {
+				assertNull(verifier.verify(token("unknown-" + i, key, "alice")));
+			}
+			assertEquals(1, fetches.get());
+		}
+	}
+
+	private void publish(Map<String, KeyPair> keys) throws Exception {
+		List<Map<String, ?>> jwkList = new ArrayList<>();
+		keys.forEach((kid, pair) -> jwkList.add(Jwks.builder().key(pair.getPublic()).id(kid)
+				.algorithm("ES256").publicKeyUse("sig").build()));
+		jwks.set(new ObjectMapper().writeValueAsString(Map.of("keys", jwkList)));
+	}
+
+	private static String token(String kid, KeyPair key, String username) {
+		long now = System.currentTimeMillis();
+		return Jwts.builder()
+				.header().keyId(kid).and()
+				.subject(username)
+				.claim(VerifiedToken.ROLES_CLAIM, List.of("USER"))
+				.issuedAt(new Date(now))
+				.expiration(new Date(now + 60_000))
+				.signWith(key.getPrivate(), Jwts.SIG.ES256)
+				.compact();
+	}
+}
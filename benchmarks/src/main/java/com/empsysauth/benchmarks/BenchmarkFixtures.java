@@ -0,0 +1,65 @@
+package com.empsysauth.benchmarks;
+
+import com.empsysauth.service.TokenDenylist;
+import com.empsysauth.service.TokenVerificationService;
+import com.empsysauth.util.AuthMetrics;
+import com.empsysauth.util.JwtUtil;
+import com.empsysauth.util.JwtKeyGenerator;
+import com.empsysauth.util.JwtKeyRing;
+import com.empsysauth.util.SigningAlgorithm;
+import com.empsysauth.util.TokenPreValidator;
+import com.empsysauth.util.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Wires the service components by hand, the way Spring would, without starting
+ * an application context or touching the database.
+ */
+final class BenchmarkFixtures {
+
+	// In-memory registry: timers cost what they cost in production, nothing is exported
+	private static final AuthMetrics AUTH_METRICS = new AuthMetrics(new SimpleMeterRegistry());
+
+	private BenchmarkFixtures() {
+	}
+
+	static AuthMetrics authMetrics() {
+		return AUTH_METRICS;
+	}
+
+	static JwtUtil jwtUtil() throws Exception {
+		return jwtUtil(SigningAlgorithm.RS256);
+	}
+
+	static JwtUtil jwtUtil(SigningAlgorithm algorithm) throws Exception {
+		Path keyDir = Files.createTempDirectory("auth-bench-keys");
+		JwtKeyGenerator.generateKeys(keyDir.toString(), algorithm);
+		JwtKeyRing keyRing = new JwtKeyRing();
+		ReflectionTestUtils.setField(keyRing, "keyDir", keyDir.toString());
+		ReflectionTestUtils.setField(keyRing, "algorithm", algorithm);
+		ReflectionTestUtils.setField(keyRing, "overlap", Duration.ofHours(2));
+		keyRing.init();
+		JwtUtil jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+		ReflectionTestUtils.setField(jwtUtil, "authMetrics", AUTH_METRICS);
+		jwtUtil.init();
+		return jwtUtil;
+	}
+
+	static TokenVerificationService tokenVerificationService(JwtUtil jwtUtil, VerifiedTokenCache cache) {
+		TokenVerificationService service = new TokenVerificationService();
+		ReflectionTestUtils.setField(service, "jwtUtil", jwtUtil);
+		ReflectionTestUtils.setField(service, "verifiedTokenCache", cache);
+		// Empty denylist: every check is answered by its Bloom filter, as in production
+		ReflectionTestUtils.setField(service, "tokenDenylist", new TokenDenylist());
+		ReflectionTestUtils.setField(service, "tokenPreValidator",
+				new TokenPreValidator((JwtKeyRing) ReflectionTestUtils.getField(jwtUtil, "keyRing")));
+		ReflectionTestUtils.setField(service, "authMetrics", AUTH_METRICS);
+		return service;
+	}
+}
@@ -0,0 +1,31 @@
+package com.empsysauth.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line options and
+ * always attaches the GC profiler, so every suite reports allocation rates
+ * (gc.alloc.rate.norm = bytes allocated per operation).
+ *
+ * java -jar target/benchmarks.jar [jmh options] [benchmark regex]
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(commandLine);
+		builder.addProfiler(GCProfiler.class);
+		if (!commandLine.getResult().hasValue()) {
+			builder.resultFormat(ResultFormatType.JSON);
+			builder.result("results/latest.json");
+		}
+		Options options = builder.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,78 @@
+package com.empsysauth.benchmarks;
+
+import com.empsysauth.filter.JwtFilter;
+import com.empsysauth.util.JwtUtil;
+import com.empsysauth.util.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A protected request through the full {@link JwtFilter#doFilter} with a mock chain.
+ *
+ * cached=true measures the steady state where clients resend the same token;
+ * cached=false clears the verified-token cache before every call (first request of a token).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+	@Param({"true", "false"})
+	public boolean cached;
+
+	private JwtFilter filter;
+	private VerifiedTokenCache cache;
+	private String token;
+
+	@Setup
+	public void setUp() throws Exception {
+		JwtUtil jwtUtil = BenchmarkFixtures.jwtUtil();
+		cache = new VerifiedTokenCache(10_000);
+		filter = new JwtFilter();
+		ReflectionTestUtils.setField(filter, "tokenVerificationService",
+				BenchmarkFixtures.tokenVerificationService(jwtUtil, cache));
+		ReflectionTestUtils.setField(filter, "authMetrics", BenchmarkFixtures.authMetrics());
+		token = jwtUtil.generateToken("bench-user");
+	}
+
+	@Setup(Level.Invocation)
+	public void resetCache() {
+		if (!cached) {
+			cache.invalidate(token);
+		}
+	}
+
+	@Benchmark
+	public Object doFilter() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/roles");
+		request.addHeader("Authorization", "Bearer " + token);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		try {
+			filter.doFilter(request, response, chain);
+			return SecurityContextHolder.getContext().getAuthentication();
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.empsysauth.benchmarks;
+
+import com.empsysauth.util.JwtUtil;
+import com.empsysauth.util.SigningAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token minting and verification in {@link JwtUtil} for each supported signing algorithm.
+ * The token length per algorithm is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+	@Param({"RS256", "ES256", "EdDSA"})
+	public SigningAlgorithm algorithm;
+
+	private JwtUtil jwtUtil;
+	private String token;
+
+	@Setup
+	public void setUp() throws Exception {
+		jwtUtil = BenchmarkFixtures.jwtUtil(algorithm);
+		token = jwtUtil.generateToken("bench-user");
+		System.out.println(algorithm + " token length: " + token.length() + " chars");
+	}
+
+	@Benchmark
+	public String generateToken() {
+		return jwtUtil.generateToken("bench-user");
+	}
+
+	@Benchmark
+	public boolean validateToken() {
+		return jwtUtil.validateToken(token);
+	}
+
+	@Benchmark
+	public String extractUsername() {
+		return jwtUtil.extractUsername(token);
+	}
+}
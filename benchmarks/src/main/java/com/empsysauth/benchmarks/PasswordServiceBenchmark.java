@@ -0,0 +1,52 @@
+package com.empsysauth.benchmarks;
+
+import com.empsysauth.service.PasswordService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt hashing and verification in {@link PasswordService} across cost factors.
+ * Each cost level doubles the work; the params go up two levels at a time, so expect roughly 4x per step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordServiceBenchmark {
+
+	@Param({"8", "10", "12"})
+	public int cost;
+
+	private PasswordService passwordService;
+	private String hash;
+
+	@Setup
+	public void setUp() {
+		passwordService = new PasswordService(new BCryptPasswordEncoder(cost));
+		hash = passwordService.encodePassword("bench-password");
+	}
+
+	@Benchmark
+	public String encodePassword() {
+		return passwordService.encodePassword("bench-password");
+	}
+
+	@Benchmark
+	public boolean matches() {
+		return passwordService.matches("bench-password", hash);
+	}
+}
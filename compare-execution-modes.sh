@@ -0,0 +1,103 @@
+#!/bin/bash
+
+# Compares login throughput and p99 latency between the platform-thread (default)
+# and virtual-thread execution modes.
+#
+# Requirements: JDK 21+ on PATH (or JAVA_BIN), a running PostgreSQL with the user below,
+# and the 'hey' load generator (https://github.com/rakyll/hey).
+#
+# Usage: ./compare-execution-modes.sh [requests] [concurrency]
+
+echo "=== Execution Mode Comparison: platform vs virtual threads ==="
+echo ""
+
+REQUESTS=${1:-20000}
+CONCURRENCY=${2:-400}
+JAVA_BIN=${JAVA_BIN:-java}
+BASE_URL="http://localhost:9090"
+USERNAME="admin"
+PASSWORD="12345"
+RESULTS_DIR="loadtest-results"
+# Every request logs in the same user from the same address: lift the login throttle
+# and skip the username index, so both modes measure the login itself instead of 429s
+UNLIMITED=1000000000
+BENCH_ARGS="--auth.login-throttle.username.capacity=$UNLIMITED \
+  --auth.login-throttle.username.refill-per-minute=$UNLIMITED \
+  --auth.login-throttle.ip.capacity=$UNLIMITED \
+  --auth.login-throttle.ip.refill-per-minute=$UNLIMITED \
+  --auth.username-index.enabled=false"
+
+JAR=$(ls target/employee-management-auth-*-exec.jar 2>/dev/null | head -1)
+if [ -z "$JAR" ]; then
+  echo "No application jar found. Build it first with: ./mvnw -DskipTests package"
+  exit 1
+fi
+if ! command -v hey > /dev/null; then
+  echo "'hey' is not installed: go install github.com/rakyll/hey@latest"
+  exit 1
+fi
+
+mkdir -p "$RESULTS_DIR"
+
+wait_for_startup() {
+  for i in $(seq 1 60); do
+    if curl -s -o /dev/null "$BASE_URL/api/auth/public-key"; then
+      return 0
+    fi
+    sleep 1
+  done
+  return 1
+}
+
+run_mode() {
+  local MODE=$1
+  local PROFILE_ARG=""
+  if [ "$MODE" == "virtual" ]; then
+    PROFILE_ARG="--spring.profiles.active=virtual-threads"
+  fi
+
+  echo "--- Mode: $MODE ---"
+  "$JAVA_BIN" -Djdk.tracePinnedThreads=short -jar "$JAR" $PROFILE_ARG $BENCH_ARGS > "$RESULTS_DIR/$MODE-app.log" 2>&1 &
+  local PID=$!
+
+  if ! wait_for_startup; then
+    echo "Application did not start, see $RESULTS_DIR/$MODE-app.log"
+    kill $PID
+    exit 1
+  fi
+
+  # Warm up JIT, connection pool and BCrypt bulkhead
+  hey -n 2000 -c 50 -m POST -T "application/json" \
+    -d "{\"username\":\"$USERNAME\",\"password\":\"$PASSWORD\"}" \
+    "$BASE_URL/api/auth/login" > /dev/null
+
+  hey -n "$REQUESTS" -c "$CONCURRENCY" -m POST -T "application/json" \
+    -d "{\"username\":\"$USERNAME\",\"password\":\"$PASSWORD\"}" \
+    "$BASE_URL/api/auth/login" > "$RESULTS_DIR/$MODE.txt"
+
+  kill $PID
+  wait $PID 2> /dev/null
+
+  local RPS=$(grep "Requests/sec" "$RESULTS_DIR/$MODE.txt" | awk '{print $2}')
+  local P99=$(grep "99% in" "$RESULTS_DIR/$MODE.txt" | awk '{print $3}')
+  local PINNED=$(grep -c "VirtualThread.*pinned\|<== monitors" "$RESULTS_DIR/$MODE-app.log")
+  # Responses other than 200 (429, 503, 401) mean the run measured rejections, not logins
+  local OK=$(grep "\[200\]" "$RESULTS_DIR/$MODE.txt" | awk '{print $2}')
+  local FAILED=$((REQUESTS - ${OK:-0}))
+  echo "$MODE $RPS $P99 $FAILED $PINNED" >> "$RESULTS_DIR/summary.txt"
+  echo "Requests/sec: $RPS   p99: ${P99}s   non-200 responses: $FAILED   pinned-thread reports: $PINNED"
+  if [ "$FAILED" -ne 0 ]; then
+    echo "WARNING: $FAILED responses were not 200, see $RESULTS_DIR/$MODE.txt"
+  fi
+  echo ""
+}
+
+rm -f "$RESULTS_DIR/summary.txt"
+run_mode platform
+run_mode virtual
+
+echo "=== Summary ($REQUESTS requests, concurrency $CONCURRENCY) ==="
+printf "%-10s %14s %10s %8s %8s\n" "mode" "requests/sec" "p99 (s)" "non-200" "pinned"
+while read MODE RPS P99 FAILED PINNED; do
+  printf "%-10s %14s %10s %8s %8s\n" "$MODE" "$RPS" "$P99" "$FAILED" "$PINNED"
+done < "$RESULTS_DIR/summary.txt"
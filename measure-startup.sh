@@ -0,0 +1,99 @@
+#!/bin/bash
+
+# Measures time from JVM launch to the first successful login, for the default jar
+# and for the fast-start build (Spring AOT + AppCDS archive). Both run the prod
+# profile, so the only difference between them is AOT and the CDS archive.
+#
+# Requirements: a running PostgreSQL with the user below, key files in JWT_KEY_DIR,
+# and both builds:
+#   ./mvnw -DskipTests package                  (default jar)
+#   ./mvnw -Pfast-start -DskipTests package     (target/fast-start)
+#
+# Usage: ./measure-startup.sh [runs]
+
+echo "=== Startup Comparison: time to first successful login ==="
+echo ""
+
+RUNS=${1:-5}
+JAVA_BIN=${JAVA_BIN:-java}
+JWT_KEY_DIR=${JWT_KEY_DIR:-$(pwd)}
+BASE_URL="http://localhost:9090"
+USERNAME="admin"
+PASSWORD="12345"
+RESULTS_DIR="startup-results"
+APP_ARGS="--spring.profiles.active=prod --jwt.key-dir=$JWT_KEY_DIR"
+
+JAR=$(ls target/employee-management-auth-*-exec.jar 2>/dev/null | head -1)
+if [ -z "$JAR" ]; then
+  echo "No application jar found. Build it first with: ./mvnw -DskipTests package"
+  exit 1
+fi
+FAST_DIR="target/fast-start"
+if [ ! -f "$FAST_DIR/application.jsa" ]; then
+  echo "No CDS archive found. Build it first with: ./mvnw -Pfast-start -DskipTests package"
+  exit 1
+fi
+
+mkdir -p "$RESULTS_DIR"
+
+now_millis() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Polls the login endpoint until it returns 200; prints the elapsed millis
+wait_for_login() {
+  local START=$1
+  for i in $(seq 1 1200); do
+    local CODE=$(curl -s -o /dev/null -w "%{http_code}" -X POST "$BASE_URL/api/auth/login" \
+      -H "Content-Type: application/json" \
+      -d "{\"username\":\"$USERNAME\",\"password\":\"$PASSWORD\"}")
+    if [ "$CODE" == "200" ]; then
+      echo $(( $(now_millis) - START ))
+      return 0
+    fi
+    sleep 0.05
+  done
+  return 1
+}
+
+run_mode() {
+  local MODE=$1
+  local RUN=$2
+  local START=$(now_millis)
+
+  if [ "$MODE" == "fast-start" ]; then
+    (cd "$FAST_DIR" && exec "$JAVA_BIN" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+      -jar $(basename "$JAR") $APP_ARGS) \
+      > "$RESULTS_DIR/$MODE-$RUN.log" 2>&1 &
+  else
+    "$JAVA_BIN" -jar "$JAR" $APP_ARGS > "$RESULTS_DIR/$MODE-$RUN.log" 2>&1 &
+  fi
+  local PID=$!
+
+  local ELAPSED
+  if ! ELAPSED=$(wait_for_login "$START"); then
+    echo "No successful login within 60s, see $RESULTS_DIR/$MODE-$RUN.log"
+    kill $PID
+    exit 1
+  fi
+  kill $PID
+  wait $PID 2> /dev/null
+
+  echo "$MODE $ELAPSED" >> "$RESULTS_DIR/summary.txt"
+  echo "$MODE run $RUN: ${ELAPSED} ms"
+}
+
+rm -f "$RESULTS_DIR/summary.txt"
+for RUN in $(seq 1 "$RUNS"); do
+  run_mode default "$RUN"
+  run_mode fast-start "$RUN"
+done
+
+echo ""
+echo "=== Summary ($RUNS runs, ms from launch to first successful login) ==="
+printf "%-12s %8s %8s %8s\n" "mode" "min" "median" "max"
+for MODE in default fast-start; do
+  grep "^$MODE " "$RESULTS_DIR/summary.txt" | awk '{print $2}' | sort -n | awk -v mode="$MODE" '
+    { v[NR] = $1 }
+    END { printf "%-12s %8d %8d %8d\n", mode, v[1], v[int((NR + 1) / 2)], v[NR] }'
+done
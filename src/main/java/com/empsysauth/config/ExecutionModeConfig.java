@@ -0,0 +1,33 @@
+package com.empsysauth.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reports which thread model serves requests.
+ * Spring Boot silently falls back to platform threads when
+ * spring.threads.virtual.enabled is set on a JRE older than 21, so make that visible.
+ */
+@Configuration
+public class ExecutionModeConfig {
+
+	private static final Logger logger = LoggerFactory.getLogger(ExecutionModeConfig.class);
+
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean virtualThreadsRequested;
+
+	@PostConstruct
+	public void reportExecutionMode() {
+		int javaVersion = Runtime.version().feature();
+		if (!virtualThreadsRequested) {
+			logger.info("Request execution mode: platform threads");
+		} else if (javaVersion < 21) {
+			logger.warn("Virtual threads requested but running on Java {}; falling back to platform threads", javaVersion);
+		} else {
+			logger.info("Request execution mode: virtual threads (Java {})", javaVersion);
+		}
+	}
+}
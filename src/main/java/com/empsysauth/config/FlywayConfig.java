@@ -0,0 +1,26 @@
+package com.empsysauth.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs the Flyway migrations at startup unless {@code auth.flyway.migrate-on-startup}
+ * is false. Unlike {@code spring.flyway.enabled}, the switch is read at runtime, so it
+ * also works in an AOT-processed build (the AppCDS training run uses it to start
+ * without a database).
+ */
+@Configuration
+public class FlywayConfig {
+
+	@Bean
+	public FlywayMigrationStrategy flywayMigrationStrategy(
+			@Value("${auth.flyway.migrate-on-startup:true}") boolean migrateOnStartup) {
+		return flyway -> {
+			if (migrateOnStartup) {
+				flyway.migrate();
+			}
+		};
+	}
+}
@@ -0,0 +1,13 @@
+package com.empsysauth.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (key rotation and other housekeeping).
+ * They run on the task scheduler, never on request threads.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
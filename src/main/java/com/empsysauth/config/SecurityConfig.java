@@ -1,9 +1,15 @@
 package com.empsysauth.config;
 
 import com.empsysauth.filter.JwtFilter;
+import com.empsysauth.filter.PublicPaths;
+import com.empsysauth.service.BCryptCalibration;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -13,14 +19,33 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 public class SecurityConfig {
 
 	@Autowired
 	private JwtFilter jwtFilter;
 
+	// -1 when actuator shares the public port; then the scrape endpoint needs a token
+	@Value("${management.server.port:-1}")
+	private int managementPort;
+
+	/**
+	 * The one BCrypt encoder for hashing and verification, at the calibrated cost.
+	 */
+	@Bean
+	public PasswordEncoder passwordEncoder(BCryptCalibration calibration) {
+		return new BCryptPasswordEncoder(calibration.getCost());
+	}
+
+	/**
+	 * JwtFilter is a bean only so it can be injected; it runs inside the security
+	 * chain below, not as a second servlet filter.
+	 */
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public FilterRegistrationBean<JwtFilter> jwtFilterRegistration() {
+		FilterRegistrationBean<JwtFilter> registration = new FilterRegistrationBean<>(jwtFilter);
+		registration.setEnabled(false);
+		return registration;
 	}
 
 	@Bean
@@ -30,9 +55,9 @@ public class SecurityConfig {
 				.sessionManagement(session -> session.sessionCreationPolicy(
 						org.springframework.security.config.http.SessionCreationPolicy.STATELESS))
 				.authorizeHttpRequests(auth -> auth
-						.requestMatchers("/api/auth/login").permitAll()
-						.requestMatchers("/api/auth/public-key").permitAll()
-						.requestMatchers("/api/admin/**").permitAll()
+						.requestMatchers(PublicPaths.PATTERNS).permitAll()
+						.requestMatchers(this::isPrometheusScrape).permitAll()
+						.requestMatchers("/api/admin/**").hasRole("ADMIN")
 						.requestMatchers("/api/auth/**").authenticated()
 						.anyRequest().authenticated()
 				)
@@ -41,5 +66,14 @@ public class SecurityConfig {
 				.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
 				.build();
 	}
+
+	/**
+	 * Unauthenticated scrapes are accepted on the management port only, which is not
+	 * reachable from outside the cluster.
+	 */
+	private boolean isPrometheusScrape(HttpServletRequest request) {
+		return managementPort > 0 && request.getLocalPort() == managementPort
+				&& "/actuator/prometheus".equals(request.getRequestURI());
+	}
 }
 
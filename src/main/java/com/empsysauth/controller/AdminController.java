@@ -3,18 +3,41 @@ package com.empsysauth.controller;
 import com.empsysauth.dto.AuthRequest;
 import com.empsysauth.entity.UserCreds;
 import com.empsysauth.repository.UserCredsRepository;
+import com.empsysauth.service.BulkUserImportService;
+import com.empsysauth.service.CredentialCache;
 import com.empsysauth.service.PasswordService;
+import com.empsysauth.service.RefreshTokenService;
+import com.empsysauth.service.RoleService;
+import com.empsysauth.service.UsernameIndex;
+import com.empsysauth.util.UsernameNormalizer;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
- * Admin controller for user management.
- * Note: In production, secure these endpoints with proper authentication and authorization.
+ * Admin controller for user management. Requires a token with the ADMIN role
+ * (also enforced for all of /api/admin/** in SecurityConfig).
  */
 @RestController
 @RequestMapping("/api/admin")
 @CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
 
 	@Autowired
@@ -23,6 +46,30 @@ public class AdminController {
 	@Autowired
 	private PasswordService passwordService;
 
+	@Autowired
+	private UsernameIndex usernameIndex;
+
+	@Autowired
+	private CredentialCache credentialCache;
+
+	@Autowired
+	private BulkUserImportService bulkUserImportService;
+
+	@Autowired
+	private RoleService roleService;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	// Runs bulk imports, as it runs other async MVC work
+	@Autowired
+	@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+	private AsyncTaskExecutor taskExecutor;
+
+	// Only this endpoint's response may stay open this long; -1 = until the upload is processed
+	@Value("${auth.bulk-import.response-timeout-ms:-1}")
+	private long bulkImportTimeoutMillis;
+
 	/**
 	 * Create a new user with BCrypt hashed password.
 	 * 
@@ -32,8 +79,8 @@ public class AdminController {
 	@PostMapping("/users")
 	public ResponseEntity<?> createUser(@RequestBody AuthRequest request) {
 		try {
-			// Check if user already exists
-			if (userCredsRepository.findByUsername(request.getUsername()) != null) {
+			// Check if user already exists (case-insensitive, matching the login lookup)
+			if (userCredsRepository.existsByUsernameNormalized(UsernameNormalizer.normalize(request.getUsername()))) {
 				return ResponseEntity.badRequest().body("Username already exists");
 			}
 
@@ -43,6 +90,8 @@ public class AdminController {
 			newUser.setPasswordHash(passwordService.encodePassword(request.getPassword()));
 
 			userCredsRepository.save(newUser);
+			usernameIndex.add(newUser.getUsername());
+			credentialCache.invalidate(newUser.getUsername());
 
 			return ResponseEntity.ok("User created successfully");
 		} catch (Exception e) {
@@ -50,6 +99,59 @@ public class AdminController {
 		}
 	}
 
+	/**
+	 * Create many users from a streamed body. Results are streamed back as NDJSON,
+	 * one line per input row, as each chunk is committed.
+	 * 
+	 * POST /api/admin/users/bulk
+	 * Content-Type: application/x-ndjson - one {"username": "...", "password": "..."} per line
+	 * Content-Type: text/csv             - username,password per line (optional header row)
+	 */
+	@PostMapping(value = "/users/bulk", consumes = { "application/x-ndjson", "text/csv" })
+	public ResponseEntity<ResponseBodyEmitter> bulkCreateUsers(HttpServletRequest request,
+			@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+		BulkUserImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf("text/csv"))
+				? BulkUserImportService.Format.CSV
+				: BulkUserImportService.Format.NDJSON;
+
+		ResponseBodyEmitter emitter = new ResponseBodyEmitter(bulkImportTimeoutMillis);
+		taskExecutor.execute(() -> {
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+					EmitterOutputStream output = new EmitterOutputStream(emitter)) {
+				bulkUserImportService.importUsers(reader, format, output);
+				output.flush();
+				emitter.complete();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				emitter.completeWithError(e);
+			} catch (Exception e) {
+				emitter.completeWithError(e);
+			}
+		});
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+	}
+
+	/**
+	 * Buffers the import's NDJSON lines and sends them to the client on each flush.
+	 */
+	private static final class EmitterOutputStream extends ByteArrayOutputStream {
+
+		private final ResponseBodyEmitter emitter;
+
+		EmitterOutputStream(ResponseBodyEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (size() > 0) {
+				emitter.send(toByteArray(), MediaType.APPLICATION_NDJSON);
+				reset();
+			}
+		}
+	}
+
 	/**
 	 * Update password for an existing user.
 	 * 
@@ -59,7 +161,7 @@ public class AdminController {
 	@PutMapping("/users/{username}/password")
 	public ResponseEntity<?> updatePassword(@PathVariable String username, @RequestBody AuthRequest request) {
 		try {
-			UserCreds user = userCredsRepository.findByUsername(username);
+			UserCreds user = userCredsRepository.findByUsernameNormalized(UsernameNormalizer.normalize(username));
 			if (user == null) {
 				return ResponseEntity.notFound().build();
 			}
@@ -67,6 +169,9 @@ public class AdminController {
 			// Hash and update password
 			user.setPasswordHash(passwordService.encodePassword(request.getPassword()));
 			userCredsRepository.save(user);
+			credentialCache.invalidate(username);
+			// Sessions started with the old password must log in again
+			refreshTokenService.revokeAllForUser(user.getId());
 
 			return ResponseEntity.ok("Password updated successfully");
 		} catch (Exception e) {
@@ -74,6 +179,28 @@ public class AdminController {
 		}
 	}
 
+	/**
+	 * Replace the roles of an existing user. The roles are embedded in tokens
+	 * minted at the user's next login.
+	 * 
+	 * PUT /api/admin/users/{username}/roles
+	 * Body: ["ADMIN", "USER"]
+	 */
+	@PutMapping("/users/{username}/roles")
+	public ResponseEntity<?> assignRoles(@PathVariable String username, @RequestBody List<String> roleNames) {
+		try {
+			List<String> assigned = roleService.assignRoles(username, roleNames);
+			if (assigned == null) {
+				return ResponseEntity.notFound().build();
+			}
+			return ResponseEntity.ok(assigned);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (Exception e) {
+			return ResponseEntity.internalServerError().body("Error assigning roles: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Hash a plain text password (utility endpoint for testing).
 	 * 
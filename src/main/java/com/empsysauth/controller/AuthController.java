@@ -2,14 +2,31 @@ package com.empsysauth.controller;
 
 import com.empsysauth.dto.AuthRequest;
 import com.empsysauth.dto.AuthResponse;
+import com.empsysauth.dto.IntrospectionRequest;
+import com.empsysauth.dto.IntrospectionResponse;
 import com.empsysauth.dto.PublicKeyResponse;
+import com.empsysauth.dto.RefreshRequest;
+import com.empsysauth.dto.RevokeRequest;
+import com.empsysauth.exception.InvalidCredentialsException;
+import com.empsysauth.exception.LoginRejectedException;
+import com.empsysauth.filter.JwtFilter;
 import com.empsysauth.service.JwtService;
+import com.empsysauth.service.LoginRateLimiter;
+import com.empsysauth.service.TokenIntrospectionService;
+import com.empsysauth.service.TokenDenylist;
+import com.empsysauth.service.TokenVerificationService;
+import com.empsysauth.util.AuthMetrics;
+import com.empsysauth.util.AuthMetrics.LoginOutcome;
+import com.empsysauth.util.VerifiedToken;
 import com.empsysauth.util.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -25,33 +42,133 @@ public class AuthController {
 	@Autowired
 	private JwtUtil jwtUtil;
 
+	@Autowired
+	private LoginRateLimiter loginRateLimiter;
+
+	@Autowired
+	private TokenVerificationService tokenVerificationService;
+
+	@Autowired
+	private TokenDenylist tokenDenylist;
+
+	@Autowired
+	private AuthMetrics authMetrics;
+
+	@Autowired
+	private TokenIntrospectionService tokenIntrospectionService;
+
 	@PostMapping("/login")
-	public ResponseEntity<?> login(@RequestBody AuthRequest request) {
+	public ResponseEntity<?> login(@RequestBody AuthRequest request, HttpServletRequest httpRequest) {
 		try {
 			logger.info("Login attempt for username: {}", request.getUsername());
-			String token = jwtService.authenticate(request.getUsername(), request.getPassword());
+			// Throttle before any DB lookup or hash
+			loginRateLimiter.checkLogin(request.getUsername(), httpRequest.getRemoteAddr());
+			AuthResponse response = jwtService.authenticate(request.getUsername(), request.getPassword());
 			logger.info("Login successful for username: {}", request.getUsername());
-			return ResponseEntity.ok(new AuthResponse(token));
+			authMetrics.login(LoginOutcome.SUCCESS);
+			return ResponseEntity.ok(response);
+		} catch (LoginRejectedException e) {
+			authMetrics.login(e.getStatus() == HttpStatus.TOO_MANY_REQUESTS ? LoginOutcome.THROTTLED : LoginOutcome.OVERLOADED);
+			logger.warn("Login rejected for username: {} - {}", request.getUsername(), e.getMessage());
+			return ResponseEntity.status(e.getStatus())
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+					.body("{\"error\": \"" + e.getMessage() + "\"}");
+		} catch (InvalidCredentialsException e) {
+			authMetrics.login(e.getOutcome());
+			logger.error("Login failed for username: {} - {}", request.getUsername(), e.getMessage());
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+					.body("{\"error\": \"" + e.getMessage() + "\"}");
 		} catch (RuntimeException e) {
+			authMetrics.login(LoginOutcome.ERROR);
 			logger.error("Login failed for username: {} - {}", request.getUsername(), e.getMessage());
 			return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
 					.body("{\"error\": \"" + e.getMessage() + "\"}");
 		} catch (Exception e) {
+			authMetrics.login(LoginOutcome.ERROR);
 			logger.error("Unexpected error during login for username: {}", request.getUsername(), e);
 			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 					.body("{\"error\": \"Internal server error\"}");
 		}
 	}
 
+	/**
+	 * Exchange a refresh token for a new token pair. The presented refresh token
+	 * is consumed; presenting it again revokes every token descended from the same login.
+	 * 
+	 * POST /api/auth/refresh
+	 * Body: { "refreshToken": "..." }
+	 */
+	@PostMapping("/refresh")
+	public ResponseEntity<?> refresh(@RequestBody RefreshRequest request) {
+		try {
+			return ResponseEntity.ok(jwtService.refresh(request.getRefreshToken()));
+		} catch (RuntimeException e) {
+			logger.warn("Token refresh failed - {}", e.getMessage());
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+					.body("{\"error\": \"" + e.getMessage() + "\"}");
+		}
+	}
+
+	/**
+	 * Revoke an access token before it expires (e.g. on logout). Users may revoke
+	 * their own tokens; admins may revoke anyone's.
+	 * 
+	 * POST /api/auth/revoke
+	 * Body: { "token": "<access token>" } - omit to revoke the caller's own bearer token
+	 */
+	@PostMapping("/revoke")
+	public ResponseEntity<?> revoke(@RequestBody(required = false) RevokeRequest request,
+			@RequestAttribute(name = JwtFilter.VERIFIED_TOKEN_ATTRIBUTE, required = false) VerifiedToken callerToken,
+			Authentication authentication) {
+		// The caller's own token was already verified by JwtFilter
+		VerifiedToken verified = request != null && request.getToken() != null
+				? tokenVerificationService.verify(request.getToken())
+				: callerToken;
+		if (verified == null) {
+			// Invalid, expired or already revoked: nothing left to revoke
+			return ResponseEntity.noContent().build();
+		}
+		boolean admin = authentication.getAuthorities().stream()
+				.anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+		if (!admin && !verified.getUsername().equals(authentication.getName())) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN)
+					.body("{\"error\": \"Cannot revoke another user's token\"}");
+		}
+		tokenDenylist.revoke(verified.getJti(), verified.getExpiresAtMillis());
+		logger.info("Token {} of user {} revoked by {}", verified.getJti(), verified.getUsername(), authentication.getName());
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * Check a batch of access tokens in one round trip (RFC 7662 style), e.g. for a
+	 * gateway validating a fan-out. Callers must present their own bearer token.
+	 * 
+	 * POST /api/auth/introspect
+	 * Body: { "tokens": ["...", "..."] }
+	 * Response: { "results": [ { "active": true, "sub": "...", "exp": ..., "roles": [...] }, { "active": false } ] }
+	 */
+	@PostMapping("/introspect")
+	public ResponseEntity<?> introspect(@RequestBody IntrospectionRequest request) {
+		if (request.getTokens() == null) {
+			return ResponseEntity.badRequest().body("{\"error\": \"tokens is required\"}");
+		}
+		if (request.getTokens().size() > tokenIntrospectionService.getMaxBatchSize()) {
+			return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+					.body("{\"error\": \"At most " + tokenIntrospectionService.getMaxBatchSize() + " tokens per request\"}");
+		}
+		return ResponseEntity.ok(new IntrospectionResponse(tokenIntrospectionService.introspect(request.getTokens())));
+	}
+
 	@GetMapping("/public-key")
 	public ResponseEntity<PublicKeyResponse> getPublicKey() {
 		try {
 			String publicKeyPem = jwtUtil.getPublicKeyPem();
 			PublicKeyResponse response = new PublicKeyResponse(
 					publicKeyPem,
-					"RSA",
+					jwtUtil.getAlgorithm().getKeyAlgorithm(),
 					"PEM",
-					"PUBLIC"
+					"PUBLIC",
+					jwtUtil.getAlgorithm().name()
 			);
 			logger.debug("Public key requested and returned");
 			return ResponseEntity.ok(response);
@@ -0,0 +1,38 @@
+package com.empsysauth.controller;
+
+import com.empsysauth.service.JwksService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Standard JWKS endpoint for services that verify our tokens.
+ *
+ * GET /.well-known/jwks.json (alias: GET /api/auth/jwks)
+ * Supports If-None-Match: an unchanged key set is answered with 304 Not Modified.
+ */
+@RestController
+@CrossOrigin(origins = "*")
+public class JwksController {
+
+	@Autowired
+	private JwksService jwksService;
+
+	@Value("${jwt.jwks.max-age-seconds:300}")
+	private long maxAgeSeconds;
+
+	@GetMapping({"/.well-known/jwks.json", "/api/auth/jwks"})
+	public ResponseEntity<byte[]> getJwks(
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return jwksService.getJwks().toResponse(ifNoneMatch,
+				CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic());
+	}
+}
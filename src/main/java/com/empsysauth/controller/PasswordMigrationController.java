@@ -0,0 +1,49 @@
+package com.empsysauth.controller;
+
+import com.empsysauth.service.PasswordMigrationJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Controls the bulk BCrypt migration of legacy plain-text passwords.
+ * Note: Lives under /api/admin, so it shares the admin endpoints' access rules.
+ *
+ * POST   /api/admin/password-migration[?restart=true]  start or resume
+ * GET    /api/admin/password-migration                 progress, rows/sec and ETA
+ * DELETE /api/admin/password-migration                 stop after the current batch
+ */
+@RestController
+@RequestMapping("/api/admin/password-migration")
+public class PasswordMigrationController {
+
+	@Autowired
+	private PasswordMigrationJob passwordMigrationJob;
+
+	@PostMapping
+	public ResponseEntity<Map<String, Object>> start(@RequestParam(defaultValue = "false") boolean restart) {
+		if (!passwordMigrationJob.start(restart)) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(passwordMigrationJob.status());
+		}
+		return ResponseEntity.accepted().body(passwordMigrationJob.status());
+	}
+
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> status() {
+		return ResponseEntity.ok(passwordMigrationJob.status());
+	}
+
+	@DeleteMapping
+	public ResponseEntity<Map<String, Object>> stop() {
+		passwordMigrationJob.stop();
+		return ResponseEntity.accepted().body(passwordMigrationJob.status());
+	}
+}
@@ -2,8 +2,8 @@ package com.empsysauth.controller;
 
 import lombok.RequiredArgsConstructor;
 
-import java.util.List;
-
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,18 +17,21 @@ import com.empsysauth.service.RoleService;
 public class RoleController {
     private final RoleService roleService;
 
+    // Clients may keep a copy but must revalidate it (If-None-Match -> 304)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<RoleDto>> getAllRoles() {
-        List<RoleDto> roles = roleService.getAllRoles();
-        return ResponseEntity.ok(roles);
+    public ResponseEntity<byte[]> getAllRoles(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return roleService.getAllRolesResponse().toResponse(ifNoneMatch, REVALIDATE);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<RoleDto> getRoleById(@PathVariable Long id) {
-        RoleDto role = roleService.getRoleById(id);
-        return ResponseEntity.ok(role);
+    public ResponseEntity<byte[]> getRoleById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return roleService.getRoleResponse(id).toResponse(ifNoneMatch, REVALIDATE);
     }
 
     @PostMapping
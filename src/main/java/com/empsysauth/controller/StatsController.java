@@ -0,0 +1,72 @@
+package com.empsysauth.controller;
+
+import com.empsysauth.service.BCryptCalibration;
+import com.empsysauth.service.CredentialCache;
+import com.empsysauth.service.CredentialWriteBehind;
+import com.empsysauth.service.LoginRateLimiter;
+import com.empsysauth.service.PasswordVerificationBulkhead;
+import com.empsysauth.service.RefreshTokenService;
+import com.empsysauth.service.TokenDenylist;
+import com.empsysauth.service.TokenIntrospectionService;
+import com.empsysauth.service.UsernameIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runtime counters for the login hot paths.
+ * Note: Lives under /api/admin, so it shares the admin endpoints' access rules.
+ *
+ * GET /api/admin/stats
+ */
+@RestController
+@RequestMapping("/api/admin/stats")
+public class StatsController {
+
+	@Autowired
+	private PasswordVerificationBulkhead passwordVerificationBulkhead;
+
+	@Autowired
+	private LoginRateLimiter loginRateLimiter;
+
+	@Autowired
+	private UsernameIndex usernameIndex;
+
+	@Autowired
+	private CredentialCache credentialCache;
+
+	@Autowired
+	private BCryptCalibration bcryptCalibration;
+
+	@Autowired
+	private CredentialWriteBehind credentialWriteBehind;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private TokenDenylist tokenDenylist;
+
+	@Autowired
+	private TokenIntrospectionService tokenIntrospectionService;
+
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> getStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("loginThrottle", loginRateLimiter.stats());
+		stats.put("usernameIndex", usernameIndex.stats());
+		stats.put("credentialCache", credentialCache.stats());
+		stats.put("refreshTokens", refreshTokenService.stats());
+		stats.put("tokenDenylist", tokenDenylist.stats());
+		stats.put("tokenIntrospection", tokenIntrospectionService.stats());
+		stats.put("bcrypt", bcryptCalibration.stats());
+		stats.put("credentialWriteBehind", credentialWriteBehind.stats());
+		stats.put("bcryptBulkhead", passwordVerificationBulkhead.stats());
+		return ResponseEntity.ok(stats);
+	}
+}
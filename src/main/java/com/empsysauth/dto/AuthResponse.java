@@ -6,8 +6,17 @@ import lombok.Data;
 public class AuthResponse {
 
 	private String token;
+	private String refreshToken;
+	// Lifetime of the access token in seconds
+	private long expiresIn;
 
 	public AuthResponse(String token) {
 		this.token = token;
 	}
+
+	public AuthResponse(String token, String refreshToken, long expiresIn) {
+		this.token = token;
+		this.refreshToken = refreshToken;
+		this.expiresIn = expiresIn;
+	}
 }
@@ -0,0 +1,19 @@
+package com.empsysauth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one input row of a bulk user import, streamed back as one NDJSON line.
+ * status: created | exists | duplicate | invalid | failed
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkImportRowResult {
+	private long line;
+	private String username;
+	private String status;
+	private String message;
+}
@@ -0,0 +1,11 @@
+package com.empsysauth.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class IntrospectionRequest {
+	// Access tokens to check; results come back in the same order
+	private List<String> tokens;
+}
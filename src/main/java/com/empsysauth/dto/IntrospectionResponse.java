@@ -0,0 +1,13 @@
+package com.empsysauth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class IntrospectionResponse {
+	// One entry per requested token, in request order
+	private List<TokenIntrospection> results;
+}
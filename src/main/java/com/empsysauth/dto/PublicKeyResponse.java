@@ -9,9 +9,12 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class PublicKeyResponse {
 	private String publicKey;
+	// JCA key algorithm (RSA, EC, Ed25519), usable with KeyFactory.getInstance
 	private String algorithm;
 	private String format;
 	private String keyType;
+	// JWS "alg" of minted tokens (RS256, ES256, EdDSA)
+	private String jwsAlgorithm;
 }
 
 
@@ -0,0 +1,9 @@
+package com.empsysauth.dto;
+
+import lombok.Data;
+
+@Data
+public class RevokeRequest {
+	// Access token to revoke
+	private String token;
+}
@@ -0,0 +1,31 @@
+package com.empsysauth.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Introspection result for one token, shaped after RFC 7662: inactive tokens
+ * (invalid, expired or revoked) carry only {@code "active": false}, with no
+ * hint as to why. Times are seconds since the epoch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospection {
+	private boolean active;
+	private String sub;
+	private String username;
+	private String jti;
+	private Long iat;
+	private Long exp;
+	private List<String> roles;
+
+	public static TokenIntrospection inactive() {
+		return new TokenIntrospection();
+	}
+}
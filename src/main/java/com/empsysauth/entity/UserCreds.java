@@ -1,7 +1,13 @@
 package com.empsysauth.entity;
 
+import com.empsysauth.util.UsernameNormalizer;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "user_creds")
@@ -14,4 +20,23 @@ public class UserCreds {
 
 	private String username;
 	private String passwordHash;
+
+	// Lookup key, kept in sync with username; unique index ux_user_creds_username_normalized
+	@Column(name = "username_normalized", unique = true)
+	private String usernameNormalized;
+
+	// Only loaded when assigning roles; the login path reads role names with plain JDBC
+	@ManyToMany(fetch = FetchType.LAZY)
+	@JoinTable(name = "user_roles",
+			joinColumns = @JoinColumn(name = "user_id"),
+			inverseJoinColumns = @JoinColumn(name = "role_id"))
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private Set<Role> roles = new HashSet<>();
+
+	@PrePersist
+	@PreUpdate
+	void normalizeUsername() {
+		usernameNormalized = UsernameNormalizer.normalize(username);
+	}
 }
@@ -0,0 +1,22 @@
+package com.empsysauth.exception;
+
+import com.empsysauth.util.AuthMetrics.LoginOutcome;
+
+/**
+ * Thrown when a login fails because the username or password is wrong. Clients
+ * always get the same message; the precise reason is only kept for metrics.
+ */
+public class InvalidCredentialsException extends RuntimeException {
+
+	private final LoginOutcome outcome;
+
+	public InvalidCredentialsException(LoginOutcome outcome) {
+		// No stack trace: failed logins are routine and must stay cheap
+		super("Invalid Credentials!", null, false, false);
+		this.outcome = outcome;
+	}
+
+	public LoginOutcome getOutcome() {
+		return outcome;
+	}
+}
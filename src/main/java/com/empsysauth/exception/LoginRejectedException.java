@@ -0,0 +1,29 @@
+package com.empsysauth.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a login attempt is refused before the credentials are checked,
+ * e.g. because the password hashing capacity is exhausted. Carries the HTTP
+ * status and the Retry-After hint to send back to the client.
+ */
+public class LoginRejectedException extends RuntimeException {
+
+	private final HttpStatus status;
+	private final long retryAfterSeconds;
+
+	public LoginRejectedException(String message, HttpStatus status, long retryAfterSeconds) {
+		// No stack trace: rejections are expected under load and must stay cheap
+		super(message, null, false, false);
+		this.status = status;
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public HttpStatus getStatus() {
+		return status;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
@@ -1,73 +1,85 @@
 package com.empsysauth.filter;
-import com.empsysauth.util.JwtUtil;
-import jakarta.servlet.*;
+import com.empsysauth.service.TokenVerificationService;
+import com.empsysauth.util.AuthMetrics;
+import com.empsysauth.util.AuthMetrics.FilterResult;
+import com.empsysauth.util.VerifiedToken;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Bearer token authentication, run once per request inside the Spring Security
+ * chain (its plain servlet registration is disabled in SecurityConfig).
+ *
+ * The verified token is kept as the {@link #VERIFIED_TOKEN_ATTRIBUTE} request
+ * attribute, so controllers that need the caller's token claims read them from
+ * there instead of verifying the header again.
+ */
 @Component
-public class JwtFilter implements Filter {
-	
+public class JwtFilter extends OncePerRequestFilter {
+
 	private static final Logger logger = LoggerFactory.getLogger(JwtFilter.class);
-	
-	@Autowired
-	private JwtUtil jwtUtil;
 
 	/**
-	 * Check if the request path is a public endpoint that doesn't require JWT authentication
+	 * Request attribute holding the caller's {@link VerifiedToken}, when the request carried a valid one.
 	 */
-	private boolean isPublicEndpoint(String path) {
-		if (path == null) {
-			return false;
-		}
-		
+	public static final String VERIFIED_TOKEN_ATTRIBUTE = "com.empsysauth.filter.JwtFilter.VERIFIED_TOKEN";
+
+	@Autowired
+	private TokenVerificationService tokenVerificationService;
+
+	@Autowired
+	private AuthMetrics authMetrics;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
 		// Public endpoints - no JWT authentication required
-		return path.equals("/api/auth/login") ||
-			   path.equals("/api/auth/public-key") ||
-			   path.startsWith("/api/admin/");
+		return PublicPaths.matches(request.getRequestURI());
 	}
 
 	@Override
-	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
 			throws IOException, ServletException {
 
-		HttpServletRequest req = (HttpServletRequest) request;
-		String path = req.getRequestURI();
+		// Timed up to the hand-off to the rest of the chain, so the metric is the filter's own cost
+		long start = System.nanoTime();
+		FilterResult result = authenticate(request);
+		authMetrics.filter(result).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
-		// Skip JWT filtering for public endpoints - let them pass through without authentication
-		if (isPublicEndpoint(path)) {
-			logger.debug("Skipping JWT filter for public endpoint: {}", path);
-			chain.doFilter(request, response);
-			return;
-		}
+		chain.doFilter(request, response);
+	}
 
+	private FilterResult authenticate(HttpServletRequest req) {
 		// For protected endpoints, validate JWT token
 		String authHeader = req.getHeader("Authorization");
 
 		if (authHeader != null && authHeader.startsWith("Bearer ")) {
 			String token = authHeader.substring(7);
-			try {
-				String username = jwtUtil.extractUsername(token);
+			VerifiedToken verified = tokenVerificationService.verify(token);
 
-				if (jwtUtil.validateToken(token) && username != null) {
-					UsernamePasswordAuthenticationToken authToken =
-							new UsernamePasswordAuthenticationToken(username, null, new ArrayList<>());
+			if (verified != null) {
+				// Authorities come from the token's roles claim; no lookup per request
+				UsernamePasswordAuthenticationToken authToken =
+						new UsernamePasswordAuthenticationToken(verified.getUsername(), null, verified.getAuthorities());
 
-					SecurityContextHolder.getContext().setAuthentication(authToken);
-					logger.debug("JWT authentication successful for user: {}", username);
-				}
-			} catch (Exception e) {
-				logger.debug("JWT token validation failed: {}", e.getMessage());
-				// Invalid token, continue without authentication (let Spring Security handle authorization)
+				SecurityContextHolder.getContext().setAuthentication(authToken);
+				req.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, verified);
+				logger.debug("JWT authentication successful for user: {}", verified.getUsername());
+				return FilterResult.AUTHENTICATED;
 			}
+			// Invalid token: continue without authentication (let Spring Security handle authorization)
+			return FilterResult.REJECTED;
 		}
-
-		chain.doFilter(request, response);
+		return FilterResult.ANONYMOUS;
 	}
 }
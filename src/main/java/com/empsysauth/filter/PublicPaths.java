@@ -0,0 +1,35 @@
+package com.empsysauth.filter;
+
+import java.util.Set;
+
+/**
+ * Endpoints reachable without a bearer token. The single list used by both
+ * {@link JwtFilter} (to skip verification) and SecurityConfig (to permit access),
+ * so the two can never disagree.
+ *
+ * Every entry is an exact path, so matching is a single hash lookup; nothing
+ * is compiled or allocated per request. /api/admin/** is deliberately not
+ * public: it grants roles and resets passwords (ADMIN only).
+ */
+public final class PublicPaths {
+
+	private static final Set<String> EXACT = Set.of(
+			"/api/auth/login",
+			"/api/auth/refresh",
+			"/api/auth/public-key",
+			"/api/auth/jwks",
+			"/.well-known/jwks.json",
+			"/actuator/health");
+
+	/**
+	 * The same paths as Spring Security request matcher patterns.
+	 */
+	public static final String[] PATTERNS = EXACT.toArray(String[]::new);
+
+	private PublicPaths() {
+	}
+
+	public static boolean matches(String path) {
+		return path != null && EXACT.contains(path);
+	}
+}
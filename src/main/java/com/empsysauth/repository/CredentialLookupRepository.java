@@ -0,0 +1,59 @@
+package com.empsysauth.repository;
+
+import com.empsysauth.util.AuthMetrics;
+import com.empsysauth.util.CachedCredential;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read-only credential lookup for the login path.
+ *
+ * A single prepared statement probing the unique index on username_normalized
+ * (plus the user's role names from user_roles), mapped straight to an immutable
+ * {@link CachedCredential}: no managed entity, no persistence context, no dirty
+ * checking.
+ */
+@Repository
+public class CredentialLookupRepository {
+
+	private static final String SQL =
+			"SELECT u.id, u.username, u.password_hash, "
+					+ "array_remove(array_agg(r.role_name ORDER BY r.role_name), NULL) AS roles "
+					+ "FROM user_creds u "
+					+ "LEFT JOIN user_roles ur ON ur.user_id = u.id "
+					+ "LEFT JOIN roles r ON r.id = ur.role_id "
+					+ "WHERE u.username_normalized = ? "
+					+ "GROUP BY u.id, u.username, u.password_hash";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final AuthMetrics authMetrics;
+
+	public CredentialLookupRepository(JdbcTemplate jdbcTemplate, AuthMetrics authMetrics) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.authMetrics = authMetrics;
+	}
+
+	/**
+	 * @param usernameNormalized Username already passed through UsernameNormalizer
+	 * @return The credential, or null if no such user exists
+	 */
+	public CachedCredential findByUsernameNormalized(String usernameNormalized) {
+		List<CachedCredential> rows = authMetrics.credentialLookup().record(() -> jdbcTemplate.query(SQL,
+				(rs, rowNum) -> new CachedCredential(rs.getLong("id"), rs.getString("username"),
+						rs.getString("password_hash"), toList(rs.getArray("roles"))),
+				usernameNormalized));
+		return rows.isEmpty() ? null : rows.get(0);
+	}
+
+	private static List<String> toList(Array array) throws SQLException {
+		if (array == null) {
+			return List.of();
+		}
+		return List.copyOf(Arrays.asList((String[]) array.getArray()));
+	}
+}
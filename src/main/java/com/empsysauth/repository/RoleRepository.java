@@ -1,4 +1,6 @@
 package com.empsysauth.repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -9,4 +11,5 @@ import com.empsysauth.entity.Role;
 public interface RoleRepository extends JpaRepository<Role, Long> {
   Optional<Role> findByRoleName(String roleName);
   boolean existsByRoleName(String roleName);
+  List<Role> findByRoleNameIn(Collection<String> roleNames);
 }
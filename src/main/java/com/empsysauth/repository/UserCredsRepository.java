@@ -1,8 +1,26 @@
 package com.empsysauth.repository;
 
 import com.empsysauth.entity.UserCreds;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.stream.Stream;
 
 public interface UserCredsRepository extends JpaRepository<UserCreds, Long> {
 	UserCreds findByUsername(String username);
+
+	UserCreds findByUsernameNormalized(String usernameNormalized);
+
+	boolean existsByUsernameNormalized(String usernameNormalized);
+
+	/**
+	 * Stream every normalized username without loading entities. Must be consumed
+	 * inside a transaction (and closed) so the driver fetches rows in batches.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select u.usernameNormalized from UserCreds u")
+	Stream<String> streamAllUsernames();
 }
\ No newline at end of file
@@ -0,0 +1,156 @@
+package com.empsysauth.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Picks the BCrypt cost for this machine.
+ *
+ * {@link #recommend} times a few hashes at a low cost and extrapolates (each
+ * cost step doubles the work) to the highest cost whose hash still fits
+ * {@code auth.bcrypt.target-hash-millis}. The chosen cost is then measured for
+ * real and stepped down while it misses the budget. The result is clamped to
+ * [{@code auth.bcrypt.min-cost}, {@code auth.bcrypt.max-cost}], so slow
+ * hardware never weakens hashes below the floor.
+ *
+ * A fleet should not calibrate at startup: hashes below the local cost are
+ * upgraded at login, so the fastest pod would set the cost for every user and
+ * slower pods would miss their budget. Production pins {@code auth.bcrypt.cost}
+ * (prod profile) to a value recommended by running {@link #main} on the target
+ * hardware; startup calibration is the fallback for single-instance setups.
+ */
+@Component
+public class BCryptCalibration {
+
+	private static final Logger logger = LoggerFactory.getLogger(BCryptCalibration.class);
+
+	private static final int PROBE_COST = 6;
+	private static final int PROBE_ROUNDS = 5;
+	private static final String PROBE_PASSWORD = "calibration-probe";
+
+	@Value("${auth.bcrypt.target-hash-millis:250}")
+	private long targetHashMillis;
+
+	@Value("${auth.bcrypt.min-cost:10}")
+	private int minCost;
+
+	@Value("${auth.bcrypt.max-cost:16}")
+	private int maxCost;
+
+	// 0 = calibrate
+	@Value("${auth.bcrypt.cost:0}")
+	private int fixedCost;
+
+	private int cost;
+	private double measuredHashMillis;
+	private boolean calibrated;
+
+	/**
+	 * Recommended cost and its measured hash time.
+	 */
+	public record Recommendation(int cost, double hashMillis) {
+	}
+
+	@PostConstruct
+	public void init() {
+		if (fixedCost > 0) {
+			// No hashing at startup; the auth.bcrypt timer shows the real hash time
+			cost = fixedCost;
+			logger.info("BCrypt cost pinned to {}", cost);
+			return;
+		}
+
+		long start = System.nanoTime();
+		Recommendation recommendation = recommend(targetHashMillis, minCost, maxCost);
+		cost = recommendation.cost();
+		measuredHashMillis = recommendation.hashMillis();
+		calibrated = true;
+		if (measuredHashMillis > targetHashMillis) {
+			logger.warn("BCrypt cost {} takes {} ms per hash, over the {} ms budget; not going below the minimum cost",
+					cost, String.format("%.1f", measuredHashMillis), targetHashMillis);
+		}
+		logger.info("BCrypt cost calibrated to {} ({} ms per hash, budget {} ms) in {} ms; pin auth.bcrypt.cost "
+						+ "when running more than one instance", cost, String.format("%.1f", measuredHashMillis),
+				targetHashMillis, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * Highest cost in [minCost, maxCost] whose hash fits the budget on this machine
+	 * (minCost if none does).
+	 */
+	public static Recommendation recommend(long targetHashMillis, int minCost, int maxCost) {
+		// Warm up and take the median at a cheap cost, then extrapolate
+		double[] probes = new double[PROBE_ROUNDS];
+		for (int i = 0; i < PROBE_ROUNDS; i++) {
+			probes[i] = timeHash(PROBE_COST);
+		}
+		Arrays.sort(probes);
+		double probeMillis = Math.max(probes[PROBE_ROUNDS / 2], 0.01);
+
+		int candidate = minCost;
+		while (candidate < maxCost && probeMillis * (1L << (candidate + 1 - PROBE_COST)) <= targetHashMillis) {
+			candidate++;
+		}
+
+		double measured = timeHash(candidate);
+		while (measured > targetHashMillis && candidate > minCost) {
+			candidate--;
+			measured = timeHash(candidate);
+		}
+		return new Recommendation(candidate, measured);
+	}
+
+	/**
+	 * Recommend a cost for this machine, to pin as auth.bcrypt.cost. Run it on the
+	 * production hardware, under no other load:
+	 * java -cp app.jar -Dloader.main=com.empsysauth.service.BCryptCalibration
+	 *      org.springframework.boot.loader.launch.PropertiesLauncher [target-ms] [min-cost] [max-cost]
+	 */
+	public static void main(String[] args) {
+		long target = args.length > 0 ? Long.parseLong(args[0]) : 250;
+		int min = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+		int max = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+		Recommendation recommendation = recommend(target, min, max);
+		System.out.println("auth.bcrypt.cost=" + recommendation.cost() + "  ("
+				+ String.format("%.1f", recommendation.hashMillis()) + " ms per hash, budget " + target + " ms)");
+	}
+
+	private static double timeHash(int cost) {
+		String salt = BCrypt.gensalt(cost);
+		long start = System.nanoTime();
+		BCrypt.hashpw(PROBE_PASSWORD, salt);
+		return (System.nanoTime() - start) / 1e6;
+	}
+
+	public int getCost() {
+		return cost;
+	}
+
+	public double getMeasuredHashMillis() {
+		return measuredHashMillis;
+	}
+
+	/**
+	 * Point-in-time figures for the stats endpoint.
+	 */
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("cost", cost);
+		stats.put("calibrated", calibrated);
+		if (calibrated) {
+			stats.put("measuredHashMs", measuredHashMillis);
+		}
+		stats.put("targetHashMs", targetHashMillis);
+		stats.put("minCost", minCost);
+		stats.put("maxCost", maxCost);
+		return stats;
+	}
+}
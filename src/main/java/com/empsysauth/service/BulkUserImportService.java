@@ -0,0 +1,227 @@
+package com.empsysauth.service;
+
+import com.empsysauth.dto.AuthRequest;
+import com.empsysauth.dto.BulkImportRowResult;
+import com.empsysauth.util.UsernameNormalizer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Imports users from a streamed NDJSON or CSV body.
+ *
+ * Input is read and processed in fixed-size chunks and results are written as
+ * each chunk completes, so memory use does not depend on the file size. Per chunk:
+ * one query finds usernames that already exist, passwords of the new rows are
+ * hashed in parallel, and the rows are inserted with one JDBC batch. The insert
+ * uses ON CONFLICT DO NOTHING on the normalized username, so a user created
+ * concurrently is reported as existing instead of failing the chunk.
+ */
+@Service
+public class BulkUserImportService {
+
+	private static final Logger logger = LoggerFactory.getLogger(BulkUserImportService.class);
+
+	private static final String SELECT_EXISTING =
+			"SELECT username_normalized FROM user_creds WHERE username_normalized = ANY (?)";
+	private static final String INSERT_USER =
+			"INSERT INTO user_creds (username, username_normalized, password_hash) VALUES (?, ?, ?) "
+					+ "ON CONFLICT (username_normalized) DO NOTHING";
+
+	public enum Format {
+		NDJSON, CSV
+	}
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PasswordService passwordService;
+
+	@Autowired
+	private UsernameIndex usernameIndex;
+
+	@Autowired
+	private CredentialCache credentialCache;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${auth.bulk-import.chunk-size:500}")
+	private int chunkSize;
+
+	// 0 = one hashing thread per CPU core
+	@Value("${auth.bulk-import.parallelism:0}")
+	private int parallelism;
+
+	private record Row(long line, String username, String normalized, String password) {
+	}
+
+	/**
+	 * Read users from the input and write one {@link BulkImportRowResult} JSON line per input row.
+	 *
+	 * @return Counts per status
+	 */
+	public Map<String, Long> importUsers(BufferedReader input, Format format, OutputStream output)
+			throws IOException, InterruptedException {
+		int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		ForkJoinPool pool = new ForkJoinPool(workers);
+		Map<String, Long> totals = new LinkedHashMap<>();
+		long start = System.nanoTime();
+		try {
+			List<Row> chunk = new ArrayList<>(chunkSize);
+			long lineNumber = 0;
+			String line;
+			while ((line = input.readLine()) != null) {
+				lineNumber++;
+				if (line.isBlank() || (format == Format.CSV && lineNumber == 1 && isCsvHeader(line))) {
+					continue;
+				}
+				Row row;
+				try {
+					row = parse(line, lineNumber, format);
+				} catch (IllegalArgumentException e) {
+					write(output, totals, new BulkImportRowResult(lineNumber, null, "invalid", e.getMessage()));
+					continue;
+				}
+				chunk.add(row);
+				if (chunk.size() >= chunkSize) {
+					processChunk(chunk, pool, output, totals);
+					chunk.clear();
+				}
+			}
+			if (!chunk.isEmpty()) {
+				processChunk(chunk, pool, output, totals);
+			}
+		} finally {
+			pool.shutdown();
+		}
+		logger.info("Bulk import finished in {} ms: {}", (System.nanoTime() - start) / 1_000_000, totals);
+		return totals;
+	}
+
+	private void processChunk(List<Row> chunk, ForkJoinPool pool, OutputStream output, Map<String, Long> totals)
+			throws IOException, InterruptedException {
+		List<BulkImportRowResult> results = new ArrayList<>(chunk.size());
+		try {
+			Set<String> existing = findExisting(chunk);
+			Set<String> seen = new HashSet<>();
+			List<Row> toInsert = new ArrayList<>();
+			for (Row row : chunk) {
+				if (existing.contains(row.normalized())) {
+					results.add(new BulkImportRowResult(row.line(), row.username(), "exists", null));
+				} else if (!seen.add(row.normalized())) {
+					results.add(new BulkImportRowResult(row.line(), row.username(), "duplicate", "Repeated in input"));
+				} else {
+					toInsert.add(row);
+				}
+			}
+
+			// BCrypt dominates; spread the chunk across all workers
+			List<String> hashes = pool.submit(() -> toInsert.parallelStream()
+					.map(row -> passwordService.encodePassword(row.password()))
+					.toList()).get();
+
+			List<Object[]> args = new ArrayList<>(toInsert.size());
+			for (int i = 0; i < toInsert.size(); i++) {
+				Row row = toInsert.get(i);
+				args.add(new Object[] { row.username(), row.normalized(), hashes.get(i) });
+			}
+			int[] counts = args.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(INSERT_USER, args);
+			for (int i = 0; i < toInsert.size(); i++) {
+				Row row = toInsert.get(i);
+				if (counts[i] != 0) {
+					usernameIndex.add(row.normalized());
+					credentialCache.invalidate(row.normalized());
+					results.add(new BulkImportRowResult(row.line(), row.username(), "created", null));
+				} else {
+					// Inserted by someone else between the existence check and the batch
+					results.add(new BulkImportRowResult(row.line(), row.username(), "exists", null));
+				}
+			}
+		} catch (ExecutionException | RuntimeException e) {
+			String message = e instanceof ExecutionException ? e.getCause().getMessage() : e.getMessage();
+			logger.error("Bulk import chunk failed: {}", message, e);
+			results.clear();
+			for (Row row : chunk) {
+				results.add(new BulkImportRowResult(row.line(), row.username(), "failed", message));
+			}
+		}
+
+		results.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+		for (BulkImportRowResult result : results) {
+			write(output, totals, result);
+		}
+		output.flush();
+	}
+
+	private Set<String> findExisting(List<Row> chunk) {
+		String[] names = chunk.stream().map(Row::normalized).distinct().toArray(String[]::new);
+		List<String> found = jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(SELECT_EXISTING);
+			Array array = connection.createArrayOf("varchar", names);
+			statement.setArray(1, array);
+			return statement;
+		}, (rs, rowNum) -> rs.getString(1));
+		return new HashSet<>(found);
+	}
+
+	private Row parse(String line, long lineNumber, Format format) {
+		String username;
+		String password;
+		if (format == Format.NDJSON) {
+			AuthRequest request;
+			try {
+				request = objectMapper.readValue(line, AuthRequest.class);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Malformed JSON");
+			}
+			username = request.getUsername();
+			password = request.getPassword();
+		} else {
+			// username,password - the password is everything after the first comma
+			int comma = line.indexOf(',');
+			if (comma < 0) {
+				throw new IllegalArgumentException("Expected username,password");
+			}
+			username = line.substring(0, comma);
+			password = line.substring(comma + 1);
+		}
+		if (username == null || username.isBlank()) {
+			throw new IllegalArgumentException("Missing username");
+		}
+		if (password == null || password.isEmpty()) {
+			throw new IllegalArgumentException("Missing password");
+		}
+		return new Row(lineNumber, username.trim(), UsernameNormalizer.normalize(username), password);
+	}
+
+	private static boolean isCsvHeader(String line) {
+		return line.trim().toLowerCase(Locale.ROOT).startsWith("username,");
+	}
+
+	private void write(OutputStream output, Map<String, Long> totals, BulkImportRowResult result) throws IOException {
+		totals.merge(result.getStatus(), 1L, Long::sum);
+		output.write(objectMapper.writeValueAsBytes(result));
+		output.write('\n');
+	}
+}
@@ -0,0 +1,86 @@
+package com.empsysauth.service;
+
+import com.empsysauth.repository.CredentialLookupRepository;
+import com.empsysauth.util.AuthMetrics;
+import com.empsysauth.util.CachedCredential;
+import com.empsysauth.util.UsernameNormalizer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of credential records by normalized username, so hot accounts
+ * log in without borrowing a pooled connection. Misses go through the lean
+ * {@link CredentialLookupRepository} query.
+ *
+ * Every write to a user's password must call {@link #invalidate} after it
+ * commits. The TTL bounds how long another instance's write can stay unseen.
+ * Unknown usernames are not cached.
+ */
+@Service
+public class CredentialCache {
+
+	private final CredentialLookupRepository repo;
+	private final Cache<String, CachedCredential> cache;
+	private final long maxSize;
+	private final Duration ttl;
+
+	public CredentialCache(CredentialLookupRepository repo, AuthMetrics authMetrics,
+			@Value("${auth.credential-cache.max-size:10000}") long maxSize,
+			@Value("${auth.credential-cache.ttl:PT5M}") Duration ttl) {
+		this.repo = repo;
+		this.maxSize = maxSize;
+		this.ttl = ttl;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(authMetrics.getRegistry(), cache, "credentials");
+	}
+
+	/**
+	 * @return The credential, loading it on a miss, or null if the user does not exist
+	 */
+	public CachedCredential lookup(String username) {
+		if (username == null) {
+			return null;
+		}
+		// Concurrent misses for one username share a single query; null results are not stored
+		return cache.get(UsernameNormalizer.normalize(username), repo::findByUsernameNormalized);
+	}
+
+	public void invalidate(String username) {
+		if (username != null) {
+			cache.invalidate(UsernameNormalizer.normalize(username));
+		}
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * Point-in-time figures for the stats endpoint.
+	 */
+	public Map<String, Object> stats() {
+		CacheStats cacheStats = cache.stats();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("size", cache.estimatedSize());
+		stats.put("maxSize", maxSize);
+		stats.put("ttl", ttl.toString());
+		stats.put("hits", cacheStats.hitCount());
+		stats.put("misses", cacheStats.missCount());
+		stats.put("hitRate", cacheStats.hitRate());
+		stats.put("evictions", cacheStats.evictionCount());
+		stats.put("averageLoadMillis", cacheStats.averageLoadPenalty() / 1_000_000.0);
+		return stats;
+	}
+}
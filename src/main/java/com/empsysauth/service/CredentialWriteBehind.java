@@ -0,0 +1,230 @@
+package com.empsysauth.service;
+
+import com.empsysauth.exception.LoginRejectedException;
+import com.empsysauth.util.AuthMetrics;
+import com.empsysauth.util.CachedCredential;
+import io.micrometer.core.instrument.Gauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind queue for database writes triggered by logins (legacy password
+ * migration and cost upgrades), so a login does not wait for the database write.
+ *
+ * The new hash is computed asynchronously on the {@link PasswordVerificationBulkhead},
+ * under the same concurrency and queue limits as password checks, so the login
+ * returns without waiting for it. Only the finished hash is queued: raw passwords never sit in the queue, and the flush
+ * thread only does JDBC. Writes are coalesced per user id (the latest one wins)
+ * and flushed with one JDBC batch per cycle. Pending writes are flushed on shutdown.
+ *
+ * A rehash is optional work. When the queue is full or the bulkhead is saturated
+ * it is dropped and counted; the user's next login tries again.
+ *
+ * Every update is conditional on the hash it replaces, so a password changed
+ * through the admin API in the meantime is never overwritten.
+ */
+@Service
+public class CredentialWriteBehind {
+
+	private static final Logger logger = LoggerFactory.getLogger(CredentialWriteBehind.class);
+
+	private static final String UPDATE_HASH =
+			"UPDATE user_creds SET password_hash = ? WHERE id = ? AND password_hash = ?";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PasswordVerificationBulkhead passwordVerificationBulkhead;
+
+	@Autowired
+	private CredentialCache credentialCache;
+
+	@Autowired
+	private AuthMetrics authMetrics;
+
+	@Value("${auth.write-behind.capacity:10000}")
+	private int capacity;
+
+	@Value("${auth.write-behind.batch-size:500}")
+	private int batchSize;
+
+	@Value("${auth.write-behind.flush-interval:PT0.2S}")
+	private Duration flushInterval;
+
+	private record PendingWrite(long userId, String username, String expectedHash, String newHash) {
+	}
+
+	private final ConcurrentHashMap<Long, PendingWrite> pending = new ConcurrentHashMap<>();
+	private ScheduledExecutorService flusher;
+
+	private final LongAdder enqueued = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder droppedQueueFull = new LongAdder();
+	private final LongAdder droppedOverloaded = new LongAdder();
+	private final LongAdder written = new LongAdder();
+	private final LongAdder conflicts = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private volatile double lastFlushMillis;
+
+	@PostConstruct
+	public void init() {
+		flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "credential-write-behind");
+			thread.setDaemon(true);
+			return thread;
+		});
+		flusher.scheduleWithFixedDelay(this::flushSafely, flushInterval.toMillis(), flushInterval.toMillis(),
+				TimeUnit.MILLISECONDS);
+		Gauge.builder("auth.write-behind.pending", pending, Map::size)
+				.description("Password hash writes waiting to be flushed")
+				.register(authMetrics.getRegistry());
+	}
+
+	/**
+	 * Hash the user's password on the bulkhead and queue the hash, replacing the
+	 * credential's current hash. Returns at once: the login never waits for the
+	 * rehash, and when the queue is full or the bulkhead is saturated the rehash
+	 * is skipped until the next login.
+	 */
+	public void storePassword(CachedCredential user, String rawPassword) {
+		if (isFull(user.getId())) {
+			droppedQueueFull.increment();
+			return;
+		}
+		passwordVerificationBulkhead.encodeAsync(rawPassword).whenComplete((newHash, error) -> {
+			if (error != null) {
+				if (error instanceof LoginRejectedException) {
+					droppedOverloaded.increment();
+				} else {
+					logger.warn("Rehash failed for user {}: {}", user.getUsername(), error.getMessage());
+				}
+				return;
+			}
+			// The queue may have filled while the hash was computed
+			if (isFull(user.getId())) {
+				droppedQueueFull.increment();
+				return;
+			}
+			PendingWrite write = new PendingWrite(user.getId(), user.getUsername(), user.getPasswordHash(), newHash);
+			if (pending.put(write.userId(), write) != null) {
+				coalesced.increment();
+			}
+			enqueued.increment();
+		});
+	}
+
+	private boolean isFull(long userId) {
+		return pending.size() >= capacity && !pending.containsKey(userId);
+	}
+
+	private void flushSafely() {
+		try {
+			flush();
+		} catch (Exception e) {
+			logger.error("Write-behind flush failed: {}", e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Drain the queue in batches.
+	 */
+	public void flush() {
+		while (!pending.isEmpty()) {
+			List<PendingWrite> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+			Iterator<Long> ids = pending.keySet().iterator();
+			while (ids.hasNext() && batch.size() < batchSize) {
+				PendingWrite write = pending.remove(ids.next());
+				if (write != null) {
+					batch.add(write);
+				}
+			}
+			if (batch.isEmpty()) {
+				return;
+			}
+			try {
+				writeBatch(batch);
+			} catch (RuntimeException e) {
+				failures.increment();
+				// Put them back unless a newer write for the same user arrived; retried next cycle
+				for (PendingWrite write : batch) {
+					pending.putIfAbsent(write.userId(), write);
+				}
+				throw e;
+			}
+		}
+	}
+
+	private void writeBatch(List<PendingWrite> batch) {
+		long start = System.nanoTime();
+		List<Object[]> args = new ArrayList<>(batch.size());
+		for (PendingWrite write : batch) {
+			args.add(new Object[] { write.newHash(), write.userId(), write.expectedHash() });
+		}
+		int[] counts = jdbcTemplate.batchUpdate(UPDATE_HASH, args);
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] != 0) {
+				written.increment();
+			} else {
+				// The stored hash changed since the login read it; that write wins
+				conflicts.increment();
+			}
+			credentialCache.invalidate(batch.get(i).username());
+		}
+		batches.increment();
+		lastFlushMillis = (System.nanoTime() - start) / 1e6;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		flusher.shutdown();
+		try {
+			flusher.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		int remaining = pending.size();
+		if (remaining > 0) {
+			logger.info("Flushing {} pending credential write(s) before shutdown", remaining);
+			flush();
+		}
+	}
+
+	/**
+	 * Point-in-time counters for the stats endpoint.
+	 */
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("queueDepth", pending.size());
+		stats.put("capacity", capacity);
+		stats.put("enqueued", enqueued.sum());
+		stats.put("coalesced", coalesced.sum());
+		stats.put("droppedQueueFull", droppedQueueFull.sum());
+		stats.put("droppedOverloaded", droppedOverloaded.sum());
+		stats.put("written", written.sum());
+		stats.put("conflicts", conflicts.sum());
+		stats.put("batches", batches.sum());
+		stats.put("failures", failures.sum());
+		stats.put("lastFlushMs", lastFlushMillis);
+		return stats;
+	}
+}
@@ -0,0 +1,88 @@
+package com.empsysauth.service;
+
+import com.empsysauth.util.JwtKeyRing;
+import com.empsysauth.util.KeyRingChangedEvent;
+import com.empsysauth.util.PreserializedResponse;
+import com.empsysauth.util.SigningKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Publishes the token verification keys as a JSON Web Key Set (RFC 7517):
+ * the active key plus every key still inside its rotation overlap window.
+ *
+ * The document is serialized once per key change and kept as an immutable byte
+ * array, so serving it involves no disk I/O and no JSON work.
+ */
+@Service
+public class JwksService {
+
+	private static final Logger logger = LoggerFactory.getLogger(JwksService.class);
+
+	public static final MediaType JWK_SET_JSON = MediaType.parseMediaType("application/jwk-set+json");
+
+	@Autowired
+	private JwtKeyRing keyRing;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private volatile PreserializedResponse jwks;
+
+	@PostConstruct
+	public void init() {
+		refresh();
+	}
+
+	/**
+	 * Rebuild the key set whenever the key ring changes.
+	 */
+	@EventListener
+	public void onKeyRingChanged(KeyRingChangedEvent event) {
+		refresh();
+	}
+
+	/**
+	 * Rebuild the key set from the current verification keys.
+	 */
+	public void refresh() {
+		List<Map<String, ?>> keys = new ArrayList<>();
+		for (SigningKey key : keyRing.verificationKeys()) {
+			PublicJwk<?> jwk = Jwks.builder()
+					.key(key.getPublicKey())
+					.id(key.getKid())
+					.algorithm(key.getAlgorithm().name())
+					.publicKeyUse("sig")
+					.build();
+			keys.add(new LinkedHashMap<>(jwk));
+		}
+		jwks = serialize(keys);
+		logger.info("JWKS rebuilt with {} key(s), ETag {}", keys.size(), jwks.getEtag());
+	}
+
+	public PreserializedResponse getJwks() {
+		return jwks;
+	}
+
+	private PreserializedResponse serialize(List<Map<String, ?>> keys) {
+		try {
+			return PreserializedResponse.of(objectMapper.writeValueAsBytes(Map.of("keys", keys)), JWK_SET_JSON);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Failed to serialize JWKS: " + e.getMessage(), e);
+		}
+	}
+}
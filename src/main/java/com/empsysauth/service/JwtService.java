@@ -1,12 +1,13 @@
 package com.empsysauth.service;
 
-import com.empsysauth.entity.UserCreds;
-import com.empsysauth.repository.UserCredsRepository;
+import com.empsysauth.dto.AuthResponse;
+import com.empsysauth.exception.InvalidCredentialsException;
+import com.empsysauth.util.AuthMetrics.LoginOutcome;
+import com.empsysauth.util.CachedCredential;
 import com.empsysauth.util.JwtUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,22 +16,40 @@ public class JwtService {
 	private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
 	
 	@Autowired
-	private UserCredsRepository repo;
+	private JwtUtil jwtUtil;
 
 	@Autowired
-	private JwtUtil jwtUtil;
+	private PasswordVerificationBulkhead passwordVerificationBulkhead;
+
+	@Autowired
+	private UsernameIndex usernameIndex;
+
+	@Autowired
+	private CredentialCache credentialCache;
 
 	@Autowired
-	private PasswordEncoder passwordEncoder;
+	private PasswordService passwordService;
 
-	public String authenticate(String username, String password) {
+	@Autowired
+	private CredentialWriteBehind credentialWriteBehind;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	public AuthResponse authenticate(String username, String password) {
 		logger.debug("Attempting authentication for username: {}", username);
 		
-		UserCreds user = repo.findByUsername(username);
+		// Definitely unknown names never reach the database
+		if (!usernameIndex.mightContain(username)) {
+			logger.warn("Authentication failed: User '{}' not found", username);
+			throw new InvalidCredentialsException(LoginOutcome.UNKNOWN_USER);
+		}
+		
+		CachedCredential user = credentialCache.lookup(username);
 		
 		if (user == null) {
 			logger.warn("Authentication failed: User '{}' not found", username);
-			throw new RuntimeException("Invalid Credentials!");
+			throw new InvalidCredentialsException(LoginOutcome.UNKNOWN_USER);
 		}
 		
 		String storedPasswordHash = user.getPasswordHash();
@@ -48,9 +67,15 @@ public class JwtService {
 		boolean passwordMatches = false;
 		
 		if (isBcryptHash) {
-			// Password is already BCrypt hashed
-			passwordMatches = passwordEncoder.matches(password, storedPasswordHash);
+			// Password is already BCrypt hashed; verify on the bounded BCrypt pool
+			passwordMatches = passwordVerificationBulkhead.matches(password, storedPasswordHash);
 			logger.debug("BCrypt hash detected. Password match: {}", passwordMatches);
+			
+			// Bring hashes made at a lower cost up to the calibrated one
+			if (passwordMatches && passwordService.needsRehash(storedPasswordHash)) {
+				logger.info("Rehashing password at the current BCrypt cost for user: {}", username);
+				credentialWriteBehind.storePassword(user, password);
+			}
 		} else {
 			// Password is plain text (legacy) - compare directly
 			passwordMatches = storedPasswordHash != null && storedPasswordHash.equals(password);
@@ -59,19 +84,40 @@ public class JwtService {
 			// Auto-migrate to BCrypt if password matches
 			if (passwordMatches) {
 				logger.info("Auto-migrating password to BCrypt for user: {}", username);
-				String hashedPassword = passwordEncoder.encode(password);
-				user.setPasswordHash(hashedPassword);
-				repo.save(user);
-				logger.info("Password migrated successfully for user: {}", username);
+				credentialWriteBehind.storePassword(user, password);
 			}
 		}
 		
 		if (passwordMatches) {
 			logger.info("Authentication successful for user: {}", username);
-			return jwtUtil.generateToken(username);
+			return issueTokens(user, refreshTokenService.issue(user.getId()));
 		} else {
 			logger.warn("Authentication failed: Invalid password for user: {}", username);
-			throw new RuntimeException("Invalid Credentials!");
+			throw new InvalidCredentialsException(LoginOutcome.BAD_PASSWORD);
 		}
 	}
+
+	/**
+	 * Exchange a refresh token for a new access token and refresh token.
+	 * No password hashing: the refresh token is checked by a single indexed lookup.
+	 *
+	 * @throws RuntimeException if the refresh token is invalid, expired, revoked or reused
+	 */
+	public AuthResponse refresh(String refreshToken) {
+		RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+		if (rotation == null) {
+			throw new RuntimeException("Invalid refresh token");
+		}
+		// Roles come from the credential cache, so they follow role changes at each refresh
+		CachedCredential user = credentialCache.lookup(rotation.username());
+		if (user == null) {
+			throw new RuntimeException("Invalid refresh token");
+		}
+		return issueTokens(user, rotation.refreshToken());
+	}
+
+	private AuthResponse issueTokens(CachedCredential user, String refreshToken) {
+		String accessToken = jwtUtil.generateToken(user.getUsername(), user.getRoles());
+		return new AuthResponse(accessToken, refreshToken, jwtUtil.getAccessTokenTtl().toSeconds());
+	}
 }
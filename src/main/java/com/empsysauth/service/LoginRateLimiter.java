@@ -0,0 +1,215 @@
+package com.empsysauth.service;
+
+import com.empsysauth.exception.LoginRejectedException;
+import com.empsysauth.util.UsernameNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory token-bucket throttling of login attempts per username and per client IP,
+ * checked before any database lookup or password hash.
+ *
+ * Buckets live in lock-striped maps: a key hashes to one of a fixed number of
+ * stripes, each guarded by its own lock, so concurrent logins for different
+ * keys rarely contend. Memory is bounded per stripe (least recently used
+ * buckets are dropped first), and buckets that have refilled completely are
+ * evicted by a periodic sweep since they carry no state.
+ */
+@Component
+public class LoginRateLimiter {
+
+	private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+	private static final int STRIPES = 64;
+
+	private final Limit usernameLimit;
+	private final Limit ipLimit;
+
+	private final LongAdder allowed = new LongAdder();
+	private final LongAdder rejectedByUsername = new LongAdder();
+	private final LongAdder rejectedByIp = new LongAdder();
+	private final LongAdder evicted = new LongAdder();
+
+	public LoginRateLimiter(
+			@Value("${auth.login-throttle.username.capacity:10}") int usernameCapacity,
+			@Value("${auth.login-throttle.username.refill-per-minute:10}") double usernameRefillPerMinute,
+			@Value("${auth.login-throttle.ip.capacity:50}") int ipCapacity,
+			@Value("${auth.login-throttle.ip.refill-per-minute:120}") double ipRefillPerMinute,
+			@Value("${auth.login-throttle.max-entries:100000}") int maxEntries) {
+		int maxEntriesPerStripe = Math.max(1, maxEntries / STRIPES);
+		this.usernameLimit = new Limit(usernameCapacity, usernameRefillPerMinute, maxEntriesPerStripe);
+		this.ipLimit = new Limit(ipCapacity, ipRefillPerMinute, maxEntriesPerStripe);
+	}
+
+	/**
+	 * Take one attempt from the client IP's and the username's buckets.
+	 *
+	 * @throws LoginRejectedException with 429 and a Retry-After hint when either bucket is empty
+	 */
+	public void checkLogin(String username, String clientIp) {
+		long now = System.nanoTime();
+
+		long ipWaitNanos = ipLimit.tryAcquire(clientIp == null ? "" : clientIp, now);
+		if (ipWaitNanos > 0) {
+			rejectedByIp.increment();
+			throw tooManyAttempts(ipWaitNanos);
+		}
+
+		String usernameKey = username == null ? "" : UsernameNormalizer.normalize(username);
+		long usernameWaitNanos = usernameLimit.tryAcquire(usernameKey, now);
+		if (usernameWaitNanos > 0) {
+			rejectedByUsername.increment();
+			throw tooManyAttempts(usernameWaitNanos);
+		}
+
+		allowed.increment();
+	}
+
+	private static LoginRejectedException tooManyAttempts(long waitNanos) {
+		long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+		return new LoginRejectedException("Too many login attempts, retry later",
+				HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds);
+	}
+
+	/**
+	 * Drop buckets that have been idle long enough to be full again.
+	 */
+	@Scheduled(fixedDelayString = "${auth.login-throttle.sweep-interval:PT1M}")
+	public void evictIdle() {
+		long now = System.nanoTime();
+		long removed = usernameLimit.evictFull(now) + ipLimit.evictFull(now);
+		if (removed > 0) {
+			evicted.add(removed);
+			logger.debug("Evicted {} idle login throttle buckets", removed);
+		}
+	}
+
+	/**
+	 * Point-in-time counters for the stats endpoint.
+	 */
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("allowed", allowed.sum());
+		stats.put("rejectedByUsername", rejectedByUsername.sum());
+		stats.put("rejectedByIp", rejectedByIp.sum());
+		stats.put("trackedUsernames", usernameLimit.size());
+		stats.put("trackedIps", ipLimit.size());
+		stats.put("evictedIdle", evicted.sum());
+		return stats;
+	}
+
+	/**
+	 * Mutable bucket state; only touched while holding its stripe's lock.
+	 */
+	private static final class Bucket {
+		double tokens;
+		long lastRefillNanos;
+
+		Bucket(double tokens, long lastRefillNanos) {
+			this.tokens = tokens;
+			this.lastRefillNanos = lastRefillNanos;
+		}
+	}
+
+	private static final class Stripe {
+		final ReentrantLock lock = new ReentrantLock();
+		final LinkedHashMap<String, Bucket> buckets;
+
+		Stripe(int maxEntries) {
+			// Access order + removeEldestEntry = LRU bound on memory
+			this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+					return size() > maxEntries;
+				}
+			};
+		}
+	}
+
+	/**
+	 * One token-bucket limit over a striped key space.
+	 */
+	private static final class Limit {
+		final double capacity;
+		final double tokensPerNano;
+		final long nanosToFull;
+		final Stripe[] stripes = new Stripe[STRIPES];
+
+		Limit(int capacity, double refillPerMinute, int maxEntriesPerStripe) {
+			this.capacity = capacity;
+			this.tokensPerNano = refillPerMinute / TimeUnit.MINUTES.toNanos(1);
+			this.nanosToFull = (long) Math.ceil(capacity / tokensPerNano);
+			for (int i = 0; i < STRIPES; i++) {
+				stripes[i] = new Stripe(maxEntriesPerStripe);
+			}
+		}
+
+		/**
+		 * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+		 */
+		long tryAcquire(String key, long now) {
+			Stripe stripe = stripes[(key.hashCode() ^ (key.hashCode() >>> 16)) & (STRIPES - 1)];
+			stripe.lock.lock();
+			try {
+				Bucket bucket = stripe.buckets.get(key);
+				if (bucket == null) {
+					bucket = new Bucket(capacity, now);
+					stripe.buckets.put(key, bucket);
+				} else {
+					bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefillNanos) * tokensPerNano);
+					bucket.lastRefillNanos = now;
+				}
+				if (bucket.tokens >= 1) {
+					bucket.tokens -= 1;
+					return 0;
+				}
+				return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+
+		long evictFull(long now) {
+			long removed = 0;
+			for (Stripe stripe : stripes) {
+				stripe.lock.lock();
+				try {
+					Iterator<Bucket> it = stripe.buckets.values().iterator();
+					while (it.hasNext()) {
+						if (now - it.next().lastRefillNanos >= nanosToFull) {
+							it.remove();
+							removed++;
+						}
+					}
+				} finally {
+					stripe.lock.unlock();
+				}
+			}
+			return removed;
+		}
+
+		long size() {
+			long size = 0;
+			for (Stripe stripe : stripes) {
+				stripe.lock.lock();
+				try {
+					size += stripe.buckets.size();
+				} finally {
+					stripe.lock.unlock();
+				}
+			}
+			return size;
+		}
+	}
+}
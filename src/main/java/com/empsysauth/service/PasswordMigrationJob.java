@@ -0,0 +1,283 @@
+package com.empsysauth.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hashes legacy plain-text passwords in user_creds with BCrypt.
+ *
+ * Replaces the old startup CommandLineRunner: the job is started from the admin
+ * API and runs on a background thread. It walks the table by primary key
+ * (keyset paging, one page in memory at a time), hashes each page on a
+ * fork-join pool and writes it back with a JDBC batch. The last processed id is
+ * committed together with each batch, so after a crash or restart the job
+ * resumes where it stopped.
+ *
+ * Updates are conditional on the stored value still being the plain text that
+ * was read, so a password changed concurrently through the admin API or the
+ * login auto-migration is never overwritten.
+ */
+@Service
+public class PasswordMigrationJob {
+
+	private static final Logger logger = LoggerFactory.getLogger(PasswordMigrationJob.class);
+
+	private static final String JOB_NAME = "bcrypt-migration";
+
+	private static final String SELECT_PAGE =
+			"SELECT id, username, password_hash FROM user_creds WHERE id > ? ORDER BY id LIMIT ?";
+	private static final String UPDATE_HASH =
+			"UPDATE user_creds SET password_hash = ? WHERE id = ? AND password_hash = ?";
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private PasswordService passwordService;
+
+	@Autowired
+	private CredentialCache credentialCache;
+
+	@Value("${auth.password-migration.page-size:1000}")
+	private int pageSize;
+
+	// 0 = one worker per CPU core
+	@Value("${auth.password-migration.parallelism:0}")
+	private int parallelism;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+	private volatile boolean stopRequested;
+
+	// Progress of the current (or last) run
+	private volatile long lastId;
+	private volatile long scanned;
+	private volatile long migrated;
+	private volatile long skipped;
+	private volatile long totalToScan;
+	private volatile long scannedAtRunStart;
+	private volatile Instant runStartedAt;
+	private volatile Instant finishedAt;
+	private volatile String failure;
+
+	private record Row(long id, String username, String password) {
+	}
+
+	/**
+	 * Start the job in the background, resuming from the last checkpoint.
+	 *
+	 * @param restart Ignore the checkpoint and scan the table from the start
+	 * @return false if the job is already running
+	 */
+	public boolean start(boolean restart) {
+		if (!running.compareAndSet(false, true)) {
+			return false;
+		}
+		stopRequested = false;
+		Thread worker = new Thread(() -> {
+			try {
+				run(restart);
+			} finally {
+				running.set(false);
+			}
+		}, "password-migration");
+		worker.setDaemon(true);
+		worker.start();
+		return true;
+	}
+
+	/**
+	 * Ask a running job to stop after the current batch; it can be resumed later.
+	 */
+	public void stop() {
+		stopRequested = true;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		stop();
+	}
+
+	private void run(boolean restart) {
+		int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		ForkJoinPool pool = new ForkJoinPool(workers);
+		try {
+			Instant jobStartedAt = restart ? null : loadCheckpoint();
+			if (jobStartedAt == null) {
+				lastId = 0;
+				scanned = 0;
+				migrated = 0;
+				jobStartedAt = Instant.now();
+			}
+			skipped = 0;
+			failure = null;
+			finishedAt = null;
+			runStartedAt = Instant.now();
+			Long remaining = jdbcTemplate.queryForObject("SELECT count(*) FROM user_creds WHERE id > ?", Long.class, lastId);
+			scannedAtRunStart = scanned;
+			totalToScan = scanned + (remaining != null ? remaining : 0);
+			logger.info("Password migration started from id {} ({} rows to scan, {} workers)", lastId, remaining, workers);
+
+			TransactionTemplate tx = new TransactionTemplate(transactionManager);
+			Instant started = jobStartedAt;
+			while (!stopRequested) {
+				List<Row> page = jdbcTemplate.query(SELECT_PAGE,
+						(rs, rowNum) -> new Row(rs.getLong("id"), rs.getString("username"), rs.getString("password_hash")),
+						lastId, pageSize);
+				if (page.isEmpty()) {
+					finishedAt = Instant.now();
+					saveCheckpoint(lastId, scanned, migrated, started, finishedAt);
+					break;
+				}
+
+				List<Row> legacy = new ArrayList<>();
+				for (Row row : page) {
+					if (row.password() != null && !isBcryptHash(row.password())) {
+						legacy.add(row);
+					}
+				}
+				// BCrypt dominates; spread the page across all workers
+				List<String> hashes = pool.submit(() -> legacy.parallelStream()
+						.map(row -> passwordService.encodePassword(row.password()))
+						.toList()).get();
+
+				long pageLastId = page.get(page.size() - 1).id();
+				long pageScanned = scanned + page.size();
+				List<Object[]> args = new ArrayList<>(legacy.size());
+				for (int i = 0; i < legacy.size(); i++) {
+					Row row = legacy.get(i);
+					args.add(new Object[] { hashes.get(i), row.id(), row.password() });
+				}
+				// Rows and checkpoint commit together, so a resumed run never skips or redoes a page
+				int[] updated = tx.execute(status -> {
+					int[] counts = args.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(UPDATE_HASH, args);
+					saveCheckpoint(pageLastId, pageScanned, migrated + countUpdated(counts), started, null);
+					return counts;
+				});
+				lastId = pageLastId;
+				scanned = pageScanned;
+
+				int pageMigrated = 0;
+				for (int i = 0; i < updated.length; i++) {
+					// Postgres reports real counts; 0 means the row changed since it was read
+					if (updated[i] != 0) {
+						pageMigrated++;
+						credentialCache.invalidate(legacy.get(i).username());
+					}
+				}
+				migrated += pageMigrated;
+				skipped += legacy.size() - pageMigrated;
+			}
+
+			if (finishedAt != null) {
+				logger.info("Password migration finished: {} of {} rows migrated in {}",
+						migrated, scanned, Duration.between(runStartedAt, finishedAt));
+			} else {
+				logger.info("Password migration stopped at id {}; start it again to resume", lastId);
+			}
+		} catch (Exception e) {
+			failure = e.getMessage();
+			logger.error("Password migration failed at id {}: {}", lastId, e.getMessage(), e);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Restore progress from the checkpoint table.
+	 *
+	 * @return When the interrupted run started, or null if there is nothing to resume
+	 */
+	private Instant loadCheckpoint() {
+		List<Instant> startedAt = jdbcTemplate.query(
+				"SELECT last_id, scanned, migrated, started_at FROM password_migration_checkpoint "
+						+ "WHERE job_name = ? AND finished_at IS NULL",
+				(rs, rowNum) -> {
+					lastId = rs.getLong("last_id");
+					scanned = rs.getLong("scanned");
+					migrated = rs.getLong("migrated");
+					return rs.getTimestamp("started_at").toInstant();
+				},
+				JOB_NAME);
+		return startedAt.isEmpty() ? null : startedAt.get(0);
+	}
+
+	private void saveCheckpoint(long lastId, long scanned, long migrated, Instant startedAt, Instant finishedAt) {
+		jdbcTemplate.update(
+				"INSERT INTO password_migration_checkpoint "
+						+ "(job_name, last_id, scanned, migrated, started_at, updated_at, finished_at) "
+						+ "VALUES (?, ?, ?, ?, ?, ?, ?) "
+						+ "ON CONFLICT (job_name) DO UPDATE SET last_id = EXCLUDED.last_id, scanned = EXCLUDED.scanned, "
+						+ "migrated = EXCLUDED.migrated, started_at = EXCLUDED.started_at, "
+						+ "updated_at = EXCLUDED.updated_at, finished_at = EXCLUDED.finished_at",
+				JOB_NAME, lastId, scanned, migrated, Timestamp.from(startedAt), Timestamp.from(Instant.now()),
+				finishedAt != null ? Timestamp.from(finishedAt) : null);
+	}
+
+	private static int countUpdated(int[] counts) {
+		int n = 0;
+		for (int count : counts) {
+			if (count != 0) {
+				n++;
+			}
+		}
+		return n;
+	}
+
+	private static boolean isBcryptHash(String value) {
+		return value.startsWith("$2a$") || value.startsWith("$2b$") || value.startsWith("$2y$");
+	}
+
+	/**
+	 * Progress of the current or last run, including throughput and an ETA.
+	 */
+	public Map<String, Object> status() {
+		Map<String, Object> status = new LinkedHashMap<>();
+		status.put("running", running.get());
+		status.put("lastId", lastId);
+		status.put("scanned", scanned);
+		status.put("totalToScan", totalToScan);
+		status.put("migrated", migrated);
+		status.put("skippedConcurrentlyChanged", skipped);
+		Instant started = runStartedAt;
+		if (started != null) {
+			Instant end = finishedAt != null ? finishedAt : Instant.now();
+			double seconds = Math.max(0.001, Duration.between(started, end).toMillis() / 1000.0);
+			// Rate over this run only; rows scanned before a resume are excluded
+			long scannedThisRun = scanned - scannedAtRunStart;
+			double rowsPerSecond = scannedThisRun / seconds;
+			status.put("startedAt", started.toString());
+			status.put("rowsPerSecond", Math.round(rowsPerSecond));
+			if (running.get() && rowsPerSecond > 0) {
+				long etaSeconds = (long) Math.ceil(Math.max(0, totalToScan - scanned) / rowsPerSecond);
+				status.put("etaSeconds", etaSeconds);
+			}
+		}
+		if (finishedAt != null) {
+			status.put("finishedAt", finishedAt.toString());
+		}
+		if (failure != null) {
+			status.put("failure", failure);
+		}
+		return status;
+	}
+}
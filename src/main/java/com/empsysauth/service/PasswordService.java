@@ -1,5 +1,7 @@
 package com.empsysauth.service;
 
+import com.empsysauth.util.AuthMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -10,7 +12,26 @@ import org.springframework.stereotype.Service;
 @Service
 public class PasswordService {
 
-	private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+	private final PasswordEncoder passwordEncoder;
+
+	// Absent when the service is built by hand, e.g. in benchmarks
+	@Autowired(required = false)
+	private AuthMetrics authMetrics;
+
+	public PasswordService() {
+		this(new BCryptPasswordEncoder());
+	}
+
+	/**
+	 * Creates the service with a specific encoder, e.g. a BCrypt encoder with a non-default cost.
+	 * The application uses the shared, cost-calibrated encoder from SecurityConfig.
+	 * 
+	 * @param passwordEncoder The encoder used for hashing and verification
+	 */
+	@Autowired
+	public PasswordService(PasswordEncoder passwordEncoder) {
+		this.passwordEncoder = passwordEncoder;
+	}
 
 	/**
 	 * Encodes a plain text password using BCrypt.
@@ -19,7 +40,10 @@ public class PasswordService {
 	 * @return BCrypt hashed password
 	 */
 	public String encodePassword(String plainPassword) {
-		return passwordEncoder.encode(plainPassword);
+		if (authMetrics == null) {
+			return passwordEncoder.encode(plainPassword);
+		}
+		return authMetrics.bcryptEncode().record(() -> passwordEncoder.encode(plainPassword));
 	}
 
 	/**
@@ -30,7 +54,20 @@ public class PasswordService {
 	 * @return true if the password matches, false otherwise
 	 */
 	public boolean matches(String plainPassword, String hashedPassword) {
-		return passwordEncoder.matches(plainPassword, hashedPassword);
+		if (authMetrics == null) {
+			return passwordEncoder.matches(plainPassword, hashedPassword);
+		}
+		return authMetrics.bcryptVerify().record(() -> passwordEncoder.matches(plainPassword, hashedPassword));
+	}
+
+	/**
+	 * Checks whether a stored hash was made with a weaker cost than the current one.
+	 * 
+	 * @param hashedPassword The stored BCrypt hash
+	 * @return true if the hash should be recomputed at the current cost
+	 */
+	public boolean needsRehash(String hashedPassword) {
+		return passwordEncoder.upgradeEncoding(hashedPassword);
 	}
 }
 
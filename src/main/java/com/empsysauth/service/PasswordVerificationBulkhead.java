@@ -0,0 +1,206 @@
+package com.empsysauth.service;
+
+import com.empsysauth.exception.LoginRejectedException;
+import com.empsysauth.util.AuthMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs BCrypt work for logins on a dedicated, bounded pool so a login storm
+ * cannot occupy every request thread. When both the workers and the queue are
+ * full the attempt is rejected immediately with a {@link LoginRejectedException}
+ * instead of waiting.
+ */
+@Component
+public class PasswordVerificationBulkhead {
+
+	private static final Logger logger = LoggerFactory.getLogger(PasswordVerificationBulkhead.class);
+
+	private final PasswordEncoder passwordEncoder;
+	private final AuthMetrics authMetrics;
+	private final ThreadPoolExecutor executor;
+	private final long maxWaitMillis;
+	private final long retryAfterSeconds;
+
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder timedOut = new LongAdder();
+	private final LongAdder totalQueueWaitNanos = new LongAdder();
+	private final LongAdder totalExecutionNanos = new LongAdder();
+	private final LongAccumulator maxQueueWaitNanos = new LongAccumulator(Long::max, 0);
+	private final LongAccumulator maxExecutionNanos = new LongAccumulator(Long::max, 0);
+
+	public PasswordVerificationBulkhead(PasswordEncoder passwordEncoder, AuthMetrics authMetrics,
+			@Value("${auth.bcrypt.bulkhead.concurrency:0}") int concurrency,
+			@Value("${auth.bcrypt.bulkhead.queue-depth:64}") int queueDepth,
+			@Value("${auth.bcrypt.bulkhead.max-wait-ms:5000}") long maxWaitMillis,
+			@Value("${auth.bcrypt.bulkhead.retry-after-seconds:1}") long retryAfterSeconds) {
+		this.passwordEncoder = passwordEncoder;
+		this.authMetrics = authMetrics;
+		this.maxWaitMillis = maxWaitMillis;
+		this.retryAfterSeconds = retryAfterSeconds;
+
+		// 0 means one worker per core: BCrypt is pure CPU work
+		int workers = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueDepth),
+				runnable -> {
+					Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+		Gauge.builder("auth.bcrypt.bulkhead.queued", executor, pool -> pool.getQueue().size())
+				.description("Logins waiting for a BCrypt worker")
+				.register(authMetrics.getRegistry());
+		Gauge.builder("auth.bcrypt.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+				.description("BCrypt workers busy")
+				.register(authMetrics.getRegistry());
+		logger.info("BCrypt bulkhead started with {} workers and queue depth {}", workers, queueDepth);
+	}
+
+	/**
+	 * Check a raw password against a BCrypt hash on the bulkhead pool.
+	 *
+	 * @throws LoginRejectedException if the pool is saturated or the wait exceeds the limit
+	 */
+	public boolean matches(String rawPassword, String encodedPassword) {
+		return run(authMetrics.bcryptVerify(), () -> passwordEncoder.matches(rawPassword, encodedPassword));
+	}
+
+	/**
+	 * Hash a raw password on the bulkhead pool.
+	 *
+	 * @throws LoginRejectedException if the pool is saturated or the wait exceeds the limit
+	 */
+	public String encode(String rawPassword) {
+		return run(authMetrics.bcryptEncode(), () -> passwordEncoder.encode(rawPassword));
+	}
+
+	/**
+	 * Hash a raw password on the bulkhead pool without waiting for the result.
+	 * The future fails with a {@link LoginRejectedException} if the pool is saturated.
+	 */
+	public CompletableFuture<String> encodeAsync(String rawPassword) {
+		CompletableFuture<String> result = new CompletableFuture<>();
+		Callable<String> work = measured(authMetrics.bcryptEncode(), () -> passwordEncoder.encode(rawPassword));
+		try {
+			executor.execute(() -> {
+				try {
+					result.complete(work.call());
+				} catch (Exception e) {
+					result.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			result.completeExceptionally(overloaded());
+		}
+		return result;
+	}
+
+	private <T> T run(Timer timer, Callable<T> work) {
+		Future<T> future;
+		try {
+			future = executor.submit(measured(timer, work));
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw overloaded();
+		}
+
+		try {
+			return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			timedOut.increment();
+			throw overloaded();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while verifying password", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new RuntimeException("Password hashing failed: " + cause.getMessage(), cause);
+		}
+	}
+
+	/**
+	 * Wrap work so it records its queue wait and execution time when it runs.
+	 */
+	private <T> Callable<T> measured(Timer timer, Callable<T> work) {
+		long enqueuedAt = System.nanoTime();
+		return () -> {
+			long startedAt = System.nanoTime();
+			record(totalQueueWaitNanos, maxQueueWaitNanos, startedAt - enqueuedAt);
+			try {
+				return work.call();
+			} finally {
+				long executionNanos = System.nanoTime() - startedAt;
+				record(totalExecutionNanos, maxExecutionNanos, executionNanos);
+				timer.record(executionNanos, TimeUnit.NANOSECONDS);
+				completed.increment();
+			}
+		};
+	}
+
+	private LoginRejectedException overloaded() {
+		return new LoginRejectedException("Login capacity exceeded, retry later",
+				HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds);
+	}
+
+	private static void record(LongAdder total, LongAccumulator max, long nanos) {
+		total.add(nanos);
+		max.accumulate(nanos);
+	}
+
+	/**
+	 * Point-in-time counters for the stats endpoint.
+	 */
+	public Map<String, Object> stats() {
+		long done = completed.sum();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("workers", executor.getMaximumPoolSize());
+		stats.put("active", executor.getActiveCount());
+		stats.put("queueDepth", executor.getQueue().size());
+		stats.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+		stats.put("completed", done);
+		stats.put("rejected", rejected.sum());
+		stats.put("timedOut", timedOut.sum());
+		stats.put("avgQueueWaitMs", done == 0 ? 0.0 : totalQueueWaitNanos.sum() / 1e6 / done);
+		stats.put("maxQueueWaitMs", maxQueueWaitNanos.get() / 1e6);
+		stats.put("avgExecutionMs", done == 0 ? 0.0 : totalExecutionNanos.sum() / 1e6 / done);
+		stats.put("maxExecutionMs", maxExecutionNanos.get() / 1e6);
+		return stats;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
@@ -0,0 +1,204 @@
+package com.empsysauth.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Issues and rotates opaque refresh tokens.
+ *
+ * A refresh token is 256 random bits; only its SHA-256 is stored (a fast hash
+ * is enough for a secret of that entropy, so refreshing costs no BCrypt).
+ * Tokens are single use: each refresh marks the presented token used and issues
+ * a successor in the same family. Presenting an already used token means it
+ * was copied, so the whole family is revoked and the legitimate client has to
+ * log in again.
+ */
+@Service
+public class RefreshTokenService {
+
+	private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${jwt.refresh-token-ttl:P14D}")
+	private Duration refreshTokenTtl;
+
+	@Value("${jwt.refresh-token-cleanup.batch-size:10000}")
+	private int cleanupBatchSize;
+
+	private final LongAdder issued = new LongAdder();
+	private final LongAdder rotated = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder reuseDetected = new LongAdder();
+	private final LongAdder purged = new LongAdder();
+
+	/**
+	 * Owner of a successfully rotated token together with its successor.
+	 */
+	public record Rotation(long userId, String username, String refreshToken) {
+	}
+
+	private record StoredToken(long id, UUID familyId, long userId, String username,
+			Instant expiresAt, Instant usedAt, Instant revokedAt) {
+	}
+
+	/**
+	 * Start a new token family for a fresh login.
+	 *
+	 * @return The refresh token to hand to the client
+	 */
+	public String issue(long userId) {
+		return insert(userId, UUID.randomUUID());
+	}
+
+	/**
+	 * Consume a refresh token and issue its successor.
+	 *
+	 * @return The rotation, or null if the token is unknown, expired, revoked or reused
+	 */
+	@Transactional
+	public Rotation rotate(String refreshToken) {
+		if (refreshToken == null || refreshToken.isEmpty()) {
+			return null;
+		}
+		// Row lock: two concurrent refreshes with the same token cannot both succeed
+		List<StoredToken> rows = jdbcTemplate.query(
+				"SELECT t.id, t.family_id, t.user_id, u.username, t.expires_at, t.used_at, t.revoked_at "
+						+ "FROM refresh_tokens t JOIN user_creds u ON u.id = t.user_id "
+						+ "WHERE t.token_hash = ? FOR UPDATE OF t",
+				(rs, rowNum) -> new StoredToken(rs.getLong("id"), rs.getObject("family_id", UUID.class),
+						rs.getLong("user_id"), rs.getString("username"),
+						rs.getTimestamp("expires_at").toInstant(),
+						toInstant(rs.getTimestamp("used_at")), toInstant(rs.getTimestamp("revoked_at"))),
+				hash(refreshToken));
+		if (rows.isEmpty()) {
+			rejected.increment();
+			return null;
+		}
+
+		StoredToken stored = rows.get(0);
+		Instant now = Instant.now();
+		if (stored.revokedAt() != null || !stored.expiresAt().isAfter(now)) {
+			rejected.increment();
+			return null;
+		}
+		if (stored.usedAt() != null) {
+			int revoked = revokeFamily(stored.familyId());
+			reuseDetected.increment();
+			logger.warn("Refresh token reuse detected for user id {}: revoked {} token(s) of family {}",
+					stored.userId(), revoked, stored.familyId());
+			return null;
+		}
+
+		jdbcTemplate.update("UPDATE refresh_tokens SET used_at = ? WHERE id = ?", Timestamp.from(now), stored.id());
+		String successor = insert(stored.userId(), stored.familyId());
+		rotated.increment();
+		return new Rotation(stored.userId(), stored.username(), successor);
+	}
+
+	/**
+	 * Revoke every outstanding refresh token of a user, e.g. after a password change.
+	 */
+	public int revokeAllForUser(long userId) {
+		return jdbcTemplate.update(
+				"UPDATE refresh_tokens SET revoked_at = ? WHERE user_id = ? AND revoked_at IS NULL AND expires_at > ?",
+				Timestamp.from(Instant.now()), userId, Timestamp.from(Instant.now()));
+	}
+
+	private int revokeFamily(UUID familyId) {
+		return jdbcTemplate.update(
+				"UPDATE refresh_tokens SET revoked_at = ? WHERE family_id = ? AND revoked_at IS NULL",
+				Timestamp.from(Instant.now()), familyId);
+	}
+
+	/**
+	 * Delete expired tokens in bounded batches (the expires_at index keeps each batch cheap).
+	 * Used tokens are kept until they expire so reuse can still be detected.
+	 */
+	@Scheduled(initialDelayString = "${jwt.refresh-token-cleanup.interval:PT1H}",
+			fixedDelayString = "${jwt.refresh-token-cleanup.interval:PT1H}")
+	public void purgeExpired() {
+		try {
+			int deleted;
+			long total = 0;
+			do {
+				deleted = jdbcTemplate.update(
+						"DELETE FROM refresh_tokens WHERE id IN "
+								+ "(SELECT id FROM refresh_tokens WHERE expires_at < ? LIMIT ?)",
+						Timestamp.from(Instant.now()), cleanupBatchSize);
+				total += deleted;
+			} while (deleted == cleanupBatchSize);
+			if (total > 0) {
+				purged.add(total);
+				logger.info("Purged {} expired refresh token(s)", total);
+			}
+		} catch (Exception e) {
+			logger.error("Refresh token cleanup failed: {}", e.getMessage(), e);
+		}
+	}
+
+	private String insert(long userId, UUID familyId) {
+		byte[] bytes = new byte[32];
+		RANDOM.nextBytes(bytes);
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		Instant now = Instant.now();
+		jdbcTemplate.update(
+				"INSERT INTO refresh_tokens (token_hash, family_id, user_id, issued_at, expires_at) VALUES (?, ?, ?, ?, ?)",
+				hash(token), familyId, userId, Timestamp.from(now), Timestamp.from(now.plus(refreshTokenTtl)));
+		issued.increment();
+		return token;
+	}
+
+	private static Instant toInstant(Timestamp timestamp) {
+		return timestamp != null ? timestamp.toInstant() : null;
+	}
+
+	static String hash(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	public Duration getRefreshTokenTtl() {
+		return refreshTokenTtl;
+	}
+
+	/**
+	 * Point-in-time counters for the stats endpoint.
+	 */
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("issued", issued.sum());
+		stats.put("rotated", rotated.sum());
+		stats.put("rejected", rejected.sum());
+		stats.put("reuseDetected", reuseDetected.sum());
+		stats.put("purgedExpired", purged.sum());
+		return stats;
+	}
+}
@@ -1,68 +1,281 @@
 package com.empsysauth.service;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.empsysauth.dto.RoleDto;
 import com.empsysauth.entity.Role;
+import com.empsysauth.entity.UserCreds;
 import com.empsysauth.repository.RoleRepository;
+import com.empsysauth.repository.UserCredsRepository;
+import com.empsysauth.util.PreserializedResponse;
+import com.empsysauth.util.UsernameNormalizer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 
 
+/**
+ * Role CRUD. Reads are served from an immutable in-memory snapshot of the
+ * roles table, including the pre-serialized JSON bodies for GET /api/roles and
+ * GET /api/roles/{id}, so they never borrow a pool connection.
+ *
+ * Writes go to the database and then swap in a new snapshot (copy-on-write).
+ * A periodic reload picks up changes made by other instances.
+ */
 @Service
 @RequiredArgsConstructor
 public class RoleService {
+    private static final Logger logger = LoggerFactory.getLogger(RoleService.class);
+
     private final RoleRepository roleRepository;
+    private final UserCredsRepository userCredsRepository;
+    private final CredentialCache credentialCache;
+    private final ObjectMapper objectMapper;
+
+    // Serializes writers only; readers never take it
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile RoleSnapshot snapshot;
+
+    /**
+     * Immutable view of all roles and their serialized forms.
+     */
+    private static final class RoleSnapshot {
+        final Map<Long, RoleDto> byId;
+        final Map<String, RoleDto> byName;
+        final PreserializedResponse listBody;
+        final Map<Long, PreserializedResponse> bodiesById;
+
+        RoleSnapshot(Map<Long, RoleDto> byId, Map<String, RoleDto> byName,
+                PreserializedResponse listBody, Map<Long, PreserializedResponse> bodiesById) {
+            this.byId = byId;
+            this.byName = byName;
+            this.listBody = listBody;
+            this.bodiesById = bodiesById;
+        }
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+
+    /**
+     * Rebuild the snapshot from the database (picks up other instances' writes).
+     */
+    @Scheduled(initialDelayString = "${auth.roles.refresh-interval:PT1M}",
+            fixedDelayString = "${auth.roles.refresh-interval:PT1M}")
+    public void reload() {
+        writeLock.lock();
+        try {
+            Map<Long, RoleDto> roles = new TreeMap<>();
+            for (Role role : roleRepository.findAll()) {
+                roles.put(role.getId(), toDto(role));
+            }
+            publish(roles);
+        } catch (RuntimeException e) {
+            if (snapshot == null) {
+                throw e;
+            }
+            // Keep serving the current snapshot; the next refresh retries
+            logger.error("Role snapshot refresh failed: {}", e.getMessage(), e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
 
 
     public List<RoleDto> getAllRoles() {
-        return roleRepository.findAll()
-                .stream()
-                .map(this::toDto)
+        return snapshot().byId.values().stream()
+                .map(this::copy)
                 .toList();
     }
 
 
     public RoleDto getRoleById(Long id) {
-        Role role = roleRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Role not found with id: " + id));
-        return toDto(role);
+        RoleDto role = snapshot().byId.get(id);
+        if (role == null) {
+            throw new RuntimeException("Role not found with id: " + id);
+        }
+        return copy(role);
+    }
+
+
+    /**
+     * @return The serialized role list with its ETag
+     */
+    public PreserializedResponse getAllRolesResponse() {
+        return snapshot().listBody;
+    }
+
+
+    /**
+     * @return The serialized role with its ETag
+     */
+    public PreserializedResponse getRoleResponse(Long id) {
+        PreserializedResponse body = snapshot().bodiesById.get(id);
+        if (body == null) {
+            throw new RuntimeException("Role not found with id: " + id);
+        }
+        return body;
     }
 
 
     public RoleDto createRole(RoleDto roleDto) {
-        if (roleRepository.existsByRoleName(roleDto.getName())) {
+        if (snapshot().byName.containsKey(roleDto.getName())) {
             throw new RuntimeException("Role with name '" + roleDto.getName() + "' already exists");
         }
 
-        Role role = new Role();
-        role.setRoleName(roleDto.getName());
-        Role saved = roleRepository.save(role);
-        return toDto(saved);
+        writeLock.lock();
+        try {
+            // The unique constraint on role_name still guards against other instances
+            Role role = new Role();
+            role.setRoleName(roleDto.getName());
+            Role saved = roleRepository.save(role);
+
+            Map<Long, RoleDto> roles = new TreeMap<>(snapshot().byId);
+            roles.put(saved.getId(), toDto(saved));
+            publish(roles);
+            return toDto(saved);
+        } finally {
+            writeLock.unlock();
+        }
     }
 
 
     public RoleDto updateRole(Long id, RoleDto roleDto) {
-        Role role = roleRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Role not found with id: " + id));
+        RoleSnapshot current = snapshot();
+        RoleDto existing = current.byId.get(id);
+        if (existing == null) {
+            throw new RuntimeException("Role not found with id: " + id);
+        }
 
-        if (!role.getRoleName().equals(roleDto.getName()) &&
-                roleRepository.existsByRoleName(roleDto.getName())) {
+        if (!existing.getName().equals(roleDto.getName()) &&
+                current.byName.containsKey(roleDto.getName())) {
             throw new RuntimeException("Role with name '" + roleDto.getName() + "' already exists");
         }
 
-        role.setRoleName(roleDto.getName());
-        Role updated = roleRepository.save(role);
-        return toDto(updated);
+        writeLock.lock();
+        try {
+            Role role = roleRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Role not found with id: " + id));
+            role.setRoleName(roleDto.getName());
+            Role updated = roleRepository.save(role);
+
+            Map<Long, RoleDto> roles = new TreeMap<>(snapshot().byId);
+            roles.put(updated.getId(), toDto(updated));
+            publish(roles);
+            // Cached credentials carry role names into newly minted tokens
+            credentialCache.invalidateAll();
+            return toDto(updated);
+        } finally {
+            writeLock.unlock();
+        }
     }
 
 
     public void deleteRole(Long id) {
-        if (!roleRepository.existsById(id)) {
+        if (!snapshot().byId.containsKey(id)) {
             throw new RuntimeException("Role not found with id: " + id);
         }
-        roleRepository.deleteById(id);
+
+        writeLock.lock();
+        try {
+            roleRepository.deleteById(id);
+
+            Map<Long, RoleDto> roles = new TreeMap<>(snapshot().byId);
+            roles.remove(id);
+            publish(roles);
+            credentialCache.invalidateAll();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    /**
+     * Replace a user's roles. Takes effect for tokens minted from now on;
+     * tokens already issued keep their roles claim until they expire.
+     *
+     * @return The assigned role names, or null if the user does not exist
+     */
+    @Transactional
+    public List<String> assignRoles(String username, List<String> roleNames) {
+        UserCreds user = userCredsRepository.findByUsernameNormalized(UsernameNormalizer.normalize(username));
+        if (user == null) {
+            return null;
+        }
+
+        Set<String> requested = new HashSet<>(roleNames);
+        List<Role> roles = roleRepository.findByRoleNameIn(requested);
+        if (roles.size() != requested.size()) {
+            Set<String> found = roles.stream().map(Role::getRoleName).collect(Collectors.toSet());
+            requested.removeAll(found);
+            throw new IllegalArgumentException("Unknown role(s): " + String.join(", ", requested));
+        }
+
+        user.setRoles(new HashSet<>(roles));
+        userCredsRepository.save(user);
+        credentialCache.invalidate(user.getUsername());
+        return roles.stream().map(Role::getRoleName).sorted().toList();
+    }
+
+    private RoleSnapshot snapshot() {
+        RoleSnapshot current = snapshot;
+        if (current == null) {
+            // First read before the ready event fired
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Serialize and swap in a new snapshot. Caller holds the write lock.
+     */
+    private void publish(Map<Long, RoleDto> roles) {
+        Map<Long, RoleDto> byId = new LinkedHashMap<>();
+        Map<String, RoleDto> byName = new LinkedHashMap<>();
+        Map<Long, PreserializedResponse> bodiesById = new LinkedHashMap<>();
+        for (RoleDto role : roles.values()) {
+            byId.put(role.getId(), role);
+            byName.put(role.getName(), role);
+            bodiesById.put(role.getId(), serialize(role));
+        }
+        PreserializedResponse listBody = serialize(List.copyOf(byId.values()));
+        snapshot = new RoleSnapshot(Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byName),
+                listBody, Collections.unmodifiableMap(bodiesById));
+    }
+
+    private PreserializedResponse serialize(Object value) {
+        try {
+            return PreserializedResponse.of(objectMapper.writeValueAsBytes(value), MediaType.APPLICATION_JSON);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize roles", e);
+        }
+    }
+
+    private RoleDto copy(RoleDto role) {
+        return new RoleDto(role.getId(), role.getName());
     }
 
     private RoleDto toDto(Role role) {
@@ -0,0 +1,233 @@
+package com.empsysauth.service;
+
+import com.empsysauth.util.BloomFilter;
+import com.empsysauth.util.VerifiedToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Access tokens revoked before their expiry, checked on every authenticated request.
+ *
+ * Revoked jtis are held in buckets keyed by the end of the time slice in which
+ * the token expires. A check only looks in the bucket for the token's own exp
+ * (O(1)), and once a slice has passed the whole bucket is dropped, because
+ * every token in it would now fail the expiry check anyway. A Bloom filter in
+ * front answers the common case, a token that was never revoked, without
+ * touching the buckets.
+ *
+ * Revocations are persisted in revoked_tokens: loaded at startup (as a lifecycle
+ * phase that completes before the web server accepts requests), polled to
+ * pick up revocations made on other instances, and deleted once expired.
+ * Readers never lock; revoke and the Bloom filter rebuild share a writer lock so
+ * a rebuild cannot lose a concurrent revocation.
+ */
+@Service
+public class TokenDenylist implements SmartLifecycle {
+
+	private static final Logger logger = LoggerFactory.getLogger(TokenDenylist.class);
+
+	private static final long BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(1);
+	private static final double BLOOM_FPP = 0.001;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Overlap for the poll watermark, covering clock skew between instances
+	@Value("${jwt.denylist.poll-overlap:PT1M}")
+	private Duration pollOverlap = Duration.ofMinutes(1);
+
+	private final ConcurrentSkipListMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+	private final ReentrantLock writeLock = new ReentrantLock();
+	private volatile BloomFilter bloom = BloomFilter.create(1024, BLOOM_FPP);
+	private volatile int entries;
+	private volatile Instant pollWatermark = Instant.EPOCH;
+
+	private final LongAdder checks = new LongAdder();
+	private final LongAdder bloomNegatives = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder revocations = new LongAdder();
+	private volatile boolean running;
+
+	/**
+	 * Loaded eagerly: a revoked token must not be accepted in the window before the
+	 * first poll. Lifecycle start rather than @PostConstruct, so a context that only
+	 * refreshes (the AppCDS training run) never queries the database.
+	 */
+	@Override
+	public void start() {
+		poll();
+		running = true;
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Before the web server, which starts in a phase just below DEFAULT_PHASE.
+	 */
+	@Override
+	public int getPhase() {
+		return 0;
+	}
+
+	/**
+	 * @return true if the token has been revoked
+	 */
+	public boolean isRevoked(VerifiedToken token) {
+		checks.increment();
+		String jti = token.getJti();
+		if (jti == null) {
+			// Minted before tokens carried a jti; cannot have been revoked
+			return false;
+		}
+		if (!bloom.mightContain(jti)) {
+			bloomNegatives.increment();
+			return false;
+		}
+		Set<String> bucket = buckets.get(bucketOf(token.getExpiresAtMillis()));
+		if (bucket != null && bucket.contains(jti)) {
+			hits.increment();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Revoke a token until its expiry, on this instance immediately and on others at their next poll.
+	 */
+	public void revoke(String jti, long expiresAtMillis) {
+		if (jti == null || expiresAtMillis <= System.currentTimeMillis()) {
+			return;
+		}
+		jdbcTemplate.update(
+				"INSERT INTO revoked_tokens (jti, expires_at, revoked_at) VALUES (?, ?, ?) ON CONFLICT (jti) DO NOTHING",
+				jti, new Timestamp(expiresAtMillis), Timestamp.from(Instant.now()));
+		add(jti, expiresAtMillis);
+		revocations.increment();
+	}
+
+	private void add(String jti, long expiresAtMillis) {
+		writeLock.lock();
+		try {
+			if (buckets.computeIfAbsent(bucketOf(expiresAtMillis), key -> ConcurrentHashMap.newKeySet()).add(jti)) {
+				entries++;
+			}
+			bloom.put(jti);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Pick up revocations persisted by any instance since the last poll.
+	 */
+	@Scheduled(initialDelayString = "${jwt.denylist.poll-interval:PT5S}",
+			fixedDelayString = "${jwt.denylist.poll-interval:PT5S}")
+	public void poll() {
+		try {
+			Instant since = pollWatermark.minus(pollOverlap);
+			Instant[] latest = { pollWatermark };
+			jdbcTemplate.query(
+					"SELECT jti, expires_at, revoked_at FROM revoked_tokens WHERE revoked_at > ? AND expires_at > ?",
+					rs -> {
+						add(rs.getString("jti"), rs.getTimestamp("expires_at").getTime());
+						Instant revokedAt = rs.getTimestamp("revoked_at").toInstant();
+						if (revokedAt.isAfter(latest[0])) {
+							latest[0] = revokedAt;
+						}
+					},
+					Timestamp.from(since.isBefore(Instant.EPOCH) ? Instant.EPOCH : since), Timestamp.from(Instant.now()));
+			pollWatermark = latest[0];
+		} catch (RuntimeException e) {
+			if (pollWatermark.equals(Instant.EPOCH)) {
+				throw e;
+			}
+			logger.error("Denylist poll failed: {}", e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Drop expired buckets, resize the Bloom filter to the live entries and
+	 * delete expired rows.
+	 */
+	@Scheduled(fixedDelayString = "${jwt.denylist.sweep-interval:PT1M}")
+	public void sweep() {
+		long now = System.currentTimeMillis();
+		evictExpired(now);
+		try {
+			jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at < ?", new Timestamp(now));
+		} catch (RuntimeException e) {
+			logger.error("Denylist cleanup failed: {}", e.getMessage(), e);
+		}
+	}
+
+	void evictExpired(long now) {
+		writeLock.lock();
+		try {
+			// A bucket keyed at or before now only holds tokens that have already expired
+			Map<Long, Set<String>> expired = buckets.headMap(now, true);
+			int dropped = 0;
+			for (Set<String> bucket : expired.values()) {
+				dropped += bucket.size();
+			}
+			expired.clear();
+			entries -= dropped;
+			if (dropped > 0 || entries > bloom.expectedInsertions()) {
+				BloomFilter next = BloomFilter.create(Math.max(1024, entries * 2L), BLOOM_FPP);
+				for (Set<String> bucket : buckets.values()) {
+					bucket.forEach(next::put);
+				}
+				bloom = next;
+			}
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	private static long bucketOf(long expiresAtMillis) {
+		// End of the slice containing exp: the bucket can go once that moment has passed
+		return (expiresAtMillis / BUCKET_MILLIS + 1) * BUCKET_MILLIS;
+	}
+
+	/**
+	 * Point-in-time counters for the stats endpoint.
+	 */
+	public Map<String, Object> stats() {
+		BloomFilter current = bloom;
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("entries", entries);
+		stats.put("buckets", buckets.size());
+		stats.put("revocations", revocations.sum());
+		stats.put("checks", checks.sum());
+		stats.put("bloomNegatives", bloomNegatives.sum());
+		stats.put("hits", hits.sum());
+		stats.put("bloomMemoryBytes", current.memoryBytes());
+		stats.put("bloomEstimatedFpp", current.currentFpp());
+		return stats;
+	}
+}
@@ -0,0 +1,161 @@
+package com.empsysauth.service;
+
+import com.empsysauth.dto.TokenIntrospection;
+import com.empsysauth.util.VerifiedToken;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Batch token introspection for gateways and other downstream services.
+ *
+ * Each token goes through {@link TokenVerificationService}, the same path as
+ * bearer authentication (pre-check, verified-token cache, signature, denylist).
+ * A batch is split into chunks: the calling thread works through the first one
+ * and the rest run on a small bounded pool, so tokens that miss the cache are
+ * verified in parallel. When the pool queue is full the caller runs the chunk
+ * itself, which slows that request down instead of queueing without bound.
+ */
+@Service
+public class TokenIntrospectionService {
+
+	// Below this, handing work to another thread costs more than the cache hits it would run
+	private static final int MIN_TOKENS_PER_CHUNK = 8;
+
+	@Autowired
+	private TokenVerificationService tokenVerificationService;
+
+	@Value("${jwt.introspection.max-batch-size:100}")
+	private int maxBatchSize;
+
+	@Value("${jwt.introspection.parallelism:0}")
+	private int parallelism;
+
+	@Value("${jwt.introspection.queue-depth:64}")
+	private int queueDepth;
+
+	private ThreadPoolExecutor executor;
+
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder tokens = new LongAdder();
+	private final LongAdder activeTokens = new LongAdder();
+
+	@PostConstruct
+	public void init() {
+		// 0 means one worker per core: cache misses are signature checks, i.e. CPU work
+		int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		AtomicInteger threadCount = new AtomicInteger();
+		executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueDepth),
+				runnable -> {
+					Thread thread = new Thread(runnable, "introspect-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	/**
+	 * @return The maximum number of tokens accepted in one call
+	 */
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * Introspect every token of a batch.
+	 *
+	 * @param batch Compact tokens; null or blank entries are reported inactive
+	 * @return One result per token, in the same order
+	 * @throws IllegalArgumentException if the batch is larger than the configured maximum
+	 */
+	public List<TokenIntrospection> introspect(List<String> batch) {
+		if (batch.size() > maxBatchSize) {
+			throw new IllegalArgumentException("At most " + maxBatchSize + " tokens per request");
+		}
+		TokenIntrospection[] results = new TokenIntrospection[batch.size()];
+		int chunks = Math.max(1, Math.min(executor.getMaximumPoolSize() + 1, batch.size() / MIN_TOKENS_PER_CHUNK));
+		int chunkSize = (batch.size() + chunks - 1) / chunks;
+
+		List<Future<?>> futures = new ArrayList<>(chunks - 1);
+		for (int from = chunkSize; from < batch.size(); from += chunkSize) {
+			int start = from;
+			int end = Math.min(batch.size(), from + chunkSize);
+			futures.add(executor.submit(() -> introspect(batch, results, start, end)));
+		}
+		introspect(batch, results, 0, Math.min(batch.size(), chunkSize));
+
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				futures.forEach(pending -> pending.cancel(true));
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Interrupted while introspecting tokens", e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				throw new RuntimeException("Token introspection failed: " + cause.getMessage(), cause);
+			}
+		}
+
+		batches.increment();
+		tokens.add(results.length);
+		activeTokens.add(Arrays.stream(results).filter(TokenIntrospection::isActive).count());
+		return Arrays.asList(results);
+	}
+
+	private void introspect(List<String> batch, TokenIntrospection[] results, int from, int to) {
+		for (int i = from; i < to; i++) {
+			VerifiedToken verified = tokenVerificationService.verify(batch.get(i));
+			results[i] = verified == null ? TokenIntrospection.inactive() : toIntrospection(verified);
+		}
+	}
+
+	private static TokenIntrospection toIntrospection(VerifiedToken verified) {
+		List<String> roles = new ArrayList<>(verified.getAuthorities().size());
+		for (GrantedAuthority authority : verified.getAuthorities()) {
+			// Same names as the token's roles claim
+			roles.add(authority.getAuthority().substring("ROLE_".length()));
+		}
+		return new TokenIntrospection(true, verified.getUsername(), verified.getUsername(), verified.getJti(),
+				verified.getClaims().getIssuedAt() == null ? null : verified.getClaims().getIssuedAt().getTime() / 1000,
+				verified.getExpiresAtMillis() / 1000, roles);
+	}
+
+	/**
+	 * Point-in-time counters for the stats endpoint.
+	 */
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("workers", executor.getMaximumPoolSize());
+		stats.put("queueDepth", executor.getQueue().size());
+		stats.put("batches", batches.sum());
+		stats.put("tokens", tokens.sum());
+		stats.put("activeTokens", activeTokens.sum());
+		return stats;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
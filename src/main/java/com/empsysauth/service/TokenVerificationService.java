@@ -0,0 +1,77 @@
+package com.empsysauth.service;
+
+import com.empsysauth.util.AuthMetrics;
+import com.empsysauth.util.JwtUtil;
+import com.empsysauth.util.TokenPreValidator;
+import com.empsysauth.util.VerifiedToken;
+import com.empsysauth.util.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Verifies bearer tokens, parsing each distinct token at most once while it is
+ * cached. Repeated requests with the same token are served from
+ * {@link VerifiedTokenCache} without any signature work. Revocation is checked
+ * on every call against the in-memory {@link TokenDenylist}.
+ *
+ * Malformed, expired and foreign-key tokens are turned away first by
+ * {@link TokenPreValidator}, before the cache key is hashed or a signature checked.
+ */
+@Service
+public class TokenVerificationService {
+
+	private static final Logger logger = LoggerFactory.getLogger(TokenVerificationService.class);
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private VerifiedTokenCache verifiedTokenCache;
+
+	@Autowired
+	private TokenDenylist tokenDenylist;
+
+	@Autowired
+	private TokenPreValidator tokenPreValidator;
+
+	@Autowired
+	private AuthMetrics authMetrics;
+
+	/**
+	 * Verify a compact token.
+	 *
+	 * @param token Compact JWS string
+	 * @return The verified token, or null if the token is invalid, expired or revoked
+	 */
+	public VerifiedToken verify(String token) {
+		TokenPreValidator.Result result = tokenPreValidator.check(token);
+		if (!result.isValid()) {
+			authMetrics.tokenPreValidationRejected(result);
+			logger.debug("Rejected token before verification: {}", result);
+			return null;
+		}
+		VerifiedToken verified = verifiedTokenCache.get(token, this::parse);
+		if (verified != null && tokenDenylist.isRevoked(verified)) {
+			logger.debug("Rejected revoked token {}", verified.getJti());
+			return null;
+		}
+		return verified;
+	}
+
+	private VerifiedToken parse(String token) {
+		try {
+			Claims claims = jwtUtil.parseClaims(token);
+			if (claims.getSubject() == null || claims.getExpiration() == null) {
+				return null;
+			}
+			return VerifiedToken.from(claims);
+		} catch (JwtException | IllegalArgumentException e) {
+			logger.debug("JWT token validation failed: {}", e.getMessage());
+			return null;
+		}
+	}
+}
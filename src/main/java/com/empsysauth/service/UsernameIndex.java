@@ -0,0 +1,268 @@
+package com.empsysauth.service;
+
+import com.empsysauth.repository.UserCredsRepository;
+import com.empsysauth.util.BloomFilter;
+import com.empsysauth.util.UsernameNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of every normalized username in user_creds.
+ *
+ * Lets the login path reject names that definitely do not exist without a
+ * database round trip. Until the first build completes every name is reported
+ * as possibly present, so correctness never depends on the filter.
+ *
+ * Users created on this instance are added directly. Users created anywhere
+ * else (another instance, or SQL) are picked up by a catch-up poll every few
+ * seconds that reads the rows above an id watermark. The watermark trails the
+ * highest id seen by a time window, so rows whose transaction committed after
+ * a higher id became visible are still read.
+ *
+ * The filter only grows (users are never deleted), and is rebuilt periodically
+ * and whenever it fills past its sized capacity, which keeps the false-positive
+ * rate near the configured target.
+ */
+@Service
+public class UsernameIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(UsernameIndex.class);
+
+	@Autowired
+	private UserCredsRepository repo;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${auth.username-index.enabled:true}")
+	private boolean enabled;
+
+	@Value("${auth.username-index.fpp:0.01}")
+	private double fpp;
+
+	// How long a seen id stays above the watermark, covering transactions that commit out of id order
+	@Value("${auth.username-index.catch-up-window:PT1M}")
+	private Duration catchUpWindow = Duration.ofMinutes(1);
+
+	private volatile BloomFilter filter;
+	// Filter being built; names added meanwhile go into both
+	private volatile BloomFilter building;
+
+	private final AtomicBoolean rebuilding = new AtomicBoolean();
+	private final LongAdder added = new LongAdder();
+	private final LongAdder skippedLookups = new LongAdder();
+	private volatile long entries;
+	private volatile long lastBuildMillis = -1;
+	private volatile Instant lastBuiltAt;
+
+	// Rows with a higher id are read by every catch-up; -1 until the first build
+	private volatile long idWatermark = -1;
+	private volatile long highestSeenId;
+	// {observedAtMillis, highestId} per catch-up, oldest first; only the catch-up poll touches it
+	private final Deque<long[]> observedIds = new ArrayDeque<>();
+	private final LongAdder caughtUp = new LongAdder();
+
+	/**
+	 * Build in the background so startup does not wait for a table scan.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		if (enabled) {
+			rebuildInBackground();
+		}
+	}
+
+	@Scheduled(initialDelayString = "${auth.username-index.rebuild-interval:PT6H}",
+			fixedDelayString = "${auth.username-index.rebuild-interval:PT6H}")
+	public void scheduledRebuild() {
+		if (enabled) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Add users created since the watermark, on any instance or directly in SQL.
+	 */
+	@Scheduled(initialDelayString = "${auth.username-index.catch-up-interval:PT2S}",
+			fixedDelayString = "${auth.username-index.catch-up-interval:PT2S}")
+	public void catchUp() {
+		long since = idWatermark;
+		if (!enabled || since < 0) {
+			return;
+		}
+		try {
+			long[] latest = { since };
+			jdbcTemplate.query(
+					"SELECT id, username_normalized FROM user_creds WHERE id > ? AND username_normalized IS NOT NULL",
+					rs -> {
+						long id = rs.getLong("id");
+						if (id > highestSeenId) {
+							add(rs.getString("username_normalized"));
+							caughtUp.increment();
+						} else {
+							// Seen before, or committed out of id order; adding again is harmless
+							put(rs.getString("username_normalized"));
+						}
+						latest[0] = Math.max(latest[0], id);
+					},
+					since);
+			highestSeenId = Math.max(highestSeenId, latest[0]);
+
+			long now = System.currentTimeMillis();
+			observedIds.addLast(new long[] { now, latest[0] });
+			while (!observedIds.isEmpty() && observedIds.peekFirst()[0] <= now - catchUpWindow.toMillis()) {
+				idWatermark = Math.max(idWatermark, observedIds.pollFirst()[1]);
+			}
+		} catch (RuntimeException e) {
+			logger.error("Username index catch-up failed: {}", e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * @return false only if the username is definitely not in user_creds
+	 */
+	public boolean mightContain(String username) {
+		BloomFilter current = filter;
+		if (current == null || username == null || current.mightContain(UsernameNormalizer.normalize(username))) {
+			return true;
+		}
+		skippedLookups.increment();
+		return false;
+	}
+
+	/**
+	 * Record a newly created user. Call after the insert has committed.
+	 */
+	public void add(String username) {
+		if (username == null) {
+			return;
+		}
+		BloomFilter current = put(username);
+		if (current != null) {
+			added.increment();
+			if (entries + added.sum() > current.expectedInsertions() && !rebuilding.get()) {
+				// Past the sized capacity the false-positive rate climbs quickly
+				rebuildInBackground();
+			}
+		}
+	}
+
+	private BloomFilter put(String username) {
+		username = UsernameNormalizer.normalize(username);
+		BloomFilter pending = building;
+		if (pending != null) {
+			pending.put(username);
+		}
+		BloomFilter current = filter;
+		if (current != null) {
+			current.put(username);
+		}
+		return current;
+	}
+
+	/**
+	 * Stream all usernames into a new filter and swap it in.
+	 */
+	public void rebuild() {
+		if (!rebuilding.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			long start = System.nanoTime();
+			long rowCount = repo.count();
+			long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM user_creds", Long.class);
+			// Headroom so inserts between rebuilds don't push the rate over target
+			BloomFilter next = BloomFilter.create(Math.max(1024, rowCount + rowCount / 2), fpp);
+			building = next;
+
+			TransactionTemplate tx = new TransactionTemplate(transactionManager);
+			tx.setReadOnly(true);
+			long count = tx.execute(status -> {
+				long n = 0;
+				try (Stream<String> usernames = repo.streamAllUsernames()) {
+					for (String username : (Iterable<String>) usernames::iterator) {
+						if (username != null) {
+							next.put(username);
+							n++;
+						}
+					}
+				}
+				return n;
+			});
+
+			filter = next;
+			building = null;
+			if (idWatermark < 0) {
+				// The first catch-up starts from the rows this build read
+				highestSeenId = maxId;
+				idWatermark = maxId;
+			}
+			entries = count;
+			added.reset();
+			lastBuildMillis = (System.nanoTime() - start) / 1_000_000;
+			lastBuiltAt = Instant.now();
+			logger.info("Username index built: {} names in {} ms, {} KiB, {} hash functions, estimated fpp {}",
+					count, lastBuildMillis, next.memoryBytes() / 1024, next.hashFunctions(),
+					String.format("%.5f", next.currentFpp()));
+		} catch (Exception e) {
+			building = null;
+			// Keep the previous filter (or none, which disables skipping)
+			logger.error("Username index build failed: {}", e.getMessage(), e);
+		} finally {
+			rebuilding.set(false);
+		}
+	}
+
+	private void rebuildInBackground() {
+		Thread builder = new Thread(this::rebuild, "username-index-build");
+		builder.setDaemon(true);
+		builder.start();
+	}
+
+	/**
+	 * Point-in-time figures for the stats endpoint.
+	 */
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		BloomFilter current = filter;
+		stats.put("enabled", enabled);
+		stats.put("built", current != null);
+		stats.put("skippedLookups", skippedLookups.sum());
+		if (current != null) {
+			stats.put("entries", entries + added.sum());
+			stats.put("capacity", current.expectedInsertions());
+			stats.put("bits", current.bitSize());
+			stats.put("memoryBytes", current.memoryBytes());
+			stats.put("hashFunctions", current.hashFunctions());
+			stats.put("targetFpp", fpp);
+			stats.put("estimatedFpp", current.currentFpp());
+			stats.put("buildMillis", lastBuildMillis);
+			stats.put("builtAt", lastBuiltAt.toString());
+			stats.put("caughtUp", caughtUp.sum());
+			stats.put("idWatermark", idWatermark);
+		}
+		return stats;
+	}
+}
@@ -0,0 +1,130 @@
+package com.empsysauth.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Micrometer meters for the authentication hot paths, registered once at startup.
+ *
+ * All timers publish percentile histograms, so p50/p99 can be aggregated across
+ * instances in Prometheus. Tags are limited to small fixed sets (operation,
+ * algorithm, outcome); usernames, paths and token ids are never used as tags.
+ *
+ * Meters (Prometheus names):
+ * - auth_bcrypt_seconds{operation=verify|encode}    BCrypt work on the login bulkhead
+ * - auth_jwt_sign_seconds{algorithm}                 token minting
+ * - auth_jwt_verify_seconds                          signature check (verified-token cache misses)
+ * - auth_credential_lookup_seconds                   database credential lookup
+ * - auth_filter_seconds{result}                      JwtFilter time per protected request
+ * - auth_login_total{outcome}                        login attempts by outcome
+ * - auth_token_prevalidation_rejected_total{result}   tokens turned away before signature work
+ */
+@Component
+public class AuthMetrics {
+
+	/**
+	 * Why a login attempt ended the way it did.
+	 */
+	public enum LoginOutcome {
+		SUCCESS, UNKNOWN_USER, BAD_PASSWORD, THROTTLED, OVERLOADED, ERROR
+	}
+
+	/**
+	 * What JwtFilter did with a protected request: valid token, no token, or a token it refused.
+	 */
+	public enum FilterResult {
+		AUTHENTICATED, ANONYMOUS, REJECTED
+	}
+
+	private final MeterRegistry registry;
+	private final Timer bcryptVerify;
+	private final Timer bcryptEncode;
+	private final Timer jwtVerify;
+	private final Timer credentialLookup;
+	private final Map<SigningAlgorithm, Timer> jwtSign = new EnumMap<>(SigningAlgorithm.class);
+	private final Map<FilterResult, Timer> filter = new EnumMap<>(FilterResult.class);
+	private final Map<LoginOutcome, Counter> logins = new EnumMap<>(LoginOutcome.class);
+	private final Map<TokenPreValidator.Result, Counter> preValidationRejects = new EnumMap<>(TokenPreValidator.Result.class);
+
+	public AuthMetrics(MeterRegistry registry) {
+		this.registry = registry;
+		this.bcryptVerify = timer("auth.bcrypt", "BCrypt work on the login bulkhead", "operation", "verify");
+		this.bcryptEncode = timer("auth.bcrypt", "BCrypt work on the login bulkhead", "operation", "encode");
+		this.jwtVerify = timer("auth.jwt.verify", "Token signature verification");
+		this.credentialLookup = timer("auth.credential.lookup", "Credential lookup in the database");
+		for (SigningAlgorithm algorithm : SigningAlgorithm.values()) {
+			jwtSign.put(algorithm, timer("auth.jwt.sign", "Token signing", "algorithm", algorithm.name()));
+		}
+		for (FilterResult result : FilterResult.values()) {
+			filter.put(result, timer("auth.filter", "JwtFilter time per request", "result", tag(result)));
+		}
+		for (LoginOutcome outcome : LoginOutcome.values()) {
+			logins.put(outcome, Counter.builder("auth.login")
+					.description("Login attempts by outcome")
+					.tag("outcome", tag(outcome))
+					.register(registry));
+		}
+		for (TokenPreValidator.Result result : TokenPreValidator.Result.values()) {
+			if (!result.isValid()) {
+				preValidationRejects.put(result, Counter.builder("auth.token.prevalidation.rejected")
+						.description("Tokens rejected by the structural pre-check")
+						.tag("result", tag(result))
+						.register(registry));
+			}
+		}
+	}
+
+	private Timer timer(String name, String description, String... tags) {
+		return Timer.builder(name)
+				.description(description)
+				.tags(tags)
+				.publishPercentileHistogram()
+				.register(registry);
+	}
+
+	private static String tag(Enum<?> value) {
+		return value.name().toLowerCase(Locale.ROOT);
+	}
+
+	public MeterRegistry getRegistry() {
+		return registry;
+	}
+
+	public Timer bcryptVerify() {
+		return bcryptVerify;
+	}
+
+	public Timer bcryptEncode() {
+		return bcryptEncode;
+	}
+
+	public Timer jwtSign(SigningAlgorithm algorithm) {
+		return jwtSign.get(algorithm);
+	}
+
+	public Timer jwtVerify() {
+		return jwtVerify;
+	}
+
+	public Timer credentialLookup() {
+		return credentialLookup;
+	}
+
+	public Timer filter(FilterResult result) {
+		return filter.get(result);
+	}
+
+	public void login(LoginOutcome outcome) {
+		logins.get(outcome).increment();
+	}
+
+	public void tokenPreValidationRejected(TokenPreValidator.Result result) {
+		preValidationRejects.get(result).increment();
+	}
+}
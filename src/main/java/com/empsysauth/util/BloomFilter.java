@@ -0,0 +1,119 @@
+package com.empsysauth.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings.
+ *
+ * {@link #mightContain} returning false is definitive; true may be a false
+ * positive with roughly the configured probability once the filter holds its
+ * expected number of entries. Bits are set with CAS, so concurrent
+ * {@link #put} and {@link #mightContain} calls need no locking.
+ */
+public class BloomFilter {
+
+	private final AtomicLongArray bits;
+	private final long bitSize;
+	private final int hashFunctions;
+	private final long expectedInsertions;
+
+	private BloomFilter(long bitSize, int hashFunctions, long expectedInsertions) {
+		// Round up to whole 64-bit words
+		int words = (int) Math.min(Integer.MAX_VALUE, (bitSize + 63) >>> 6);
+		this.bits = new AtomicLongArray(words);
+		this.bitSize = (long) words << 6;
+		this.hashFunctions = hashFunctions;
+		this.expectedInsertions = expectedInsertions;
+	}
+
+	/**
+	 * Size a filter for the given number of entries and false-positive probability.
+	 */
+	public static BloomFilter create(long expectedInsertions, double fpp) {
+		if (fpp <= 0 || fpp >= 1) {
+			throw new IllegalArgumentException("fpp must be in (0, 1): " + fpp);
+		}
+		long n = Math.max(1, expectedInsertions);
+		long m = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+		int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+		return new BloomFilter(m, k, n);
+	}
+
+	public void put(String value) {
+		long hash1 = hash(value);
+		long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashFunctions; i++) {
+			long bit = Long.remainderUnsigned(hash1 + i * hash2, bitSize);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long current;
+			do {
+				current = bits.get(word);
+				if ((current & mask) != 0) {
+					break;
+				}
+			} while (!bits.compareAndSet(word, current, current | mask));
+		}
+	}
+
+	public boolean mightContain(String value) {
+		long hash1 = hash(value);
+		long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+		for (int i = 0; i < hashFunctions; i++) {
+			long bit = Long.remainderUnsigned(hash1 + i * hash2, bitSize);
+			if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public long bitSize() {
+		return bitSize;
+	}
+
+	public int hashFunctions() {
+		return hashFunctions;
+	}
+
+	public long expectedInsertions() {
+		return expectedInsertions;
+	}
+
+	public long memoryBytes() {
+		return bitSize >>> 3;
+	}
+
+	/**
+	 * Current false-positive probability, estimated from the share of bits set.
+	 */
+	public double currentFpp() {
+		long set = 0;
+		for (int i = 0; i < bits.length(); i++) {
+			set += Long.bitCount(bits.get(i));
+		}
+		return Math.pow((double) set / bitSize, hashFunctions);
+	}
+
+	/**
+	 * 64-bit FNV-1a over the UTF-8 bytes, finalized with the MurmurHash3 mixer.
+	 */
+	private static long hash(String value) {
+		long h = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			h ^= b & 0xff;
+			h *= 0x100000001b3L;
+		}
+		return mix(h);
+	}
+
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,18 @@
+package com.empsysauth.util;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Immutable copy of the fields the login path needs from a user_creds row,
+ * plus the names of the user's roles. Shared between requests through the
+ * credential cache.
+ */
+@Value
+public class CachedCredential {
+	Long id;
+	String username;
+	String passwordHash;
+	List<String> roles;
+}
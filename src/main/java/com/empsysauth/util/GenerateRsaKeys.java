@@ -1,16 +1,18 @@
 package com.empsysauth.util;
 
 /**
- * Utility class to generate RSA key pair.
+ * Utility class to generate a signing key pair.
  * Run this main method to generate private_key.pem and public_key.pem in the project root.
+ * Pass ES256 or EdDSA as the first argument to generate EC P-256 or Ed25519 keys instead.
  */
 public class GenerateRsaKeys {
 	
 	public static void main(String[] args) {
 		try {
+			SigningAlgorithm algorithm = args.length > 0 ? SigningAlgorithm.valueOf(args[0]) : SigningAlgorithm.RS256;
 			String rootPath = System.getProperty("user.dir");
-			System.out.println("Generating RSA keys in: " + rootPath);
-			RsaKeyGenerator.generateKeys(rootPath);
+			System.out.println("Generating " + algorithm + " keys in: " + rootPath);
+			JwtKeyGenerator.generateKeys(rootPath, algorithm);
 			System.out.println("Keys generated successfully!");
 		} catch (Exception e) {
 			System.err.println("Error generating keys: " + e.getMessage());
@@ -18,5 +20,3 @@ public class GenerateRsaKeys {
 		}
 	}
 }
-
-
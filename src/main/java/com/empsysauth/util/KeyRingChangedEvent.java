@@ -0,0 +1,18 @@
+package com.empsysauth.util;
+
+/**
+ * Published by {@link JwtKeyRing} whenever the set of verification keys or the
+ * active signing key changes.
+ */
+public class KeyRingChangedEvent {
+
+	private final String activeKid;
+
+	public KeyRingChangedEvent(String activeKid) {
+		this.activeKid = activeKid;
+	}
+
+	public String getActiveKid() {
+		return activeKid;
+	}
+}
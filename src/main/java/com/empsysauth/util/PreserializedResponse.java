@@ -0,0 +1,99 @@
+package com.empsysauth.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * A response body serialized once and served as-is, with a strong ETag derived
+ * from its bytes. Handles If-None-Match so unchanged content costs a 304 with
+ * no body. The byte array is never handed out for modification.
+ */
+public final class PreserializedResponse {
+
+	private final byte[] body;
+	private final String etag;
+	private final MediaType contentType;
+
+	private PreserializedResponse(byte[] body, String etag, MediaType contentType) {
+		this.body = body;
+		this.etag = etag;
+		this.contentType = contentType;
+	}
+
+	public static PreserializedResponse of(byte[] body, MediaType contentType) {
+		byte[] copy = body.clone();
+		return new PreserializedResponse(copy, "\"" + hash(copy) + "\"", contentType);
+	}
+
+	public String getEtag() {
+		return etag;
+	}
+
+	public int length() {
+		return body.length;
+	}
+
+	/**
+	 * Build the response for a request carrying the given If-None-Match header.
+	 *
+	 * @param ifNoneMatch Raw If-None-Match header value, may be null
+	 * @param cacheControl Cache-Control sent with both 200 and 304 responses
+	 * @return 304 without body when the client copy is current, otherwise 200 with the body
+	 */
+	public ResponseEntity<byte[]> toResponse(String ifNoneMatch, CacheControl cacheControl) {
+		if (matches(ifNoneMatch)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+					.eTag(etag)
+					.cacheControl(cacheControl)
+					.build();
+		}
+		return ResponseEntity.ok()
+				.eTag(etag)
+				.cacheControl(cacheControl)
+				.contentType(contentType)
+				.contentLength(body.length)
+				// Spring writes the array straight to the response; it is never mutated
+				.body(body);
+	}
+
+	boolean matches(String ifNoneMatch) {
+		if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String tag = candidate.trim();
+			if (tag.equals("*")) {
+				return true;
+			}
+			// If-None-Match uses weak comparison: ignore a W/ prefix
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if (tag.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String hash(byte[] body) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return new String(body, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,70 @@
+package com.empsysauth.util;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * JWS signing algorithms supported for access tokens, configured with {@code jwt.algorithm}.
+ *
+ * RS256 keeps the original RSA-2048 keys; ES256 (ECDSA P-256) and EdDSA (Ed25519) sign
+ * much faster and produce 64-byte signatures instead of 256 bytes.
+ */
+public enum SigningAlgorithm {
+
+	RS256(Jwts.SIG.RS256, "RSA", ""),
+	ES256(Jwts.SIG.ES256, "EC", "es256_"),
+	EdDSA(Jwts.SIG.EdDSA, "Ed25519", "ed25519_");
+
+	private final SignatureAlgorithm jwsAlgorithm;
+	private final String keyAlgorithm;
+	private final String filePrefix;
+
+	SigningAlgorithm(SignatureAlgorithm jwsAlgorithm, String keyAlgorithm, String filePrefix) {
+		this.jwsAlgorithm = jwsAlgorithm;
+		this.keyAlgorithm = keyAlgorithm;
+		this.filePrefix = filePrefix;
+	}
+
+	/**
+	 * @return The jjwt algorithm used to sign and verify
+	 */
+	public SignatureAlgorithm getJwsAlgorithm() {
+		return jwsAlgorithm;
+	}
+
+	/**
+	 * @return The JCA key algorithm, usable with {@link java.security.KeyFactory#getInstance(String)}
+	 */
+	public String getKeyAlgorithm() {
+		return keyAlgorithm;
+	}
+
+	/**
+	 * Key files are named per algorithm so switching algorithms never overwrites existing keys.
+	 * RS256 keeps the original private_key.pem / public_key.pem names.
+	 */
+	public String privateKeyFileName() {
+		return filePrefix + "private_key.pem";
+	}
+
+	public String publicKeyFileName() {
+		return filePrefix + "public_key.pem";
+	}
+
+	public KeyPair generateKeyPair() throws GeneralSecurityException {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm);
+		switch (this) {
+			case RS256 -> generator.initialize(2048);
+			case ES256 -> generator.initialize(new ECGenParameterSpec("secp256r1"));
+			case EdDSA -> {
+				// Ed25519 has a fixed key size
+			}
+		}
+		return generator.generateKeyPair();
+	}
+}
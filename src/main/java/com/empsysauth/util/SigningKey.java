@@ -0,0 +1,29 @@
+package com.empsysauth.util;
+
+import lombok.Value;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Instant;
+
+/**
+ * One key pair in the {@link JwtKeyRing}. The kid is the RFC 7638 thumbprint of
+ * the public key, so the same key always gets the same kid on every instance.
+ */
+@Value
+public class SigningKey {
+	String kid;
+	SigningAlgorithm algorithm;
+	PrivateKey privateKey;
+	PublicKey publicKey;
+	String publicKeyPem;
+	Instant createdAt;
+	// Null while the key is the newest one; set once a newer key has taken over signing
+	Instant retireAt;
+	// True for the key loaded from the root PEM files (tokens minted before kids existed)
+	boolean bootstrap;
+
+	public SigningKey retiringAt(Instant retireAt) {
+		return new SigningKey(kid, algorithm, privateKey, publicKey, publicKeyPem, createdAt, retireAt, bootstrap);
+	}
+}
@@ -0,0 +1,367 @@
+package com.empsysauth.util;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Structural pre-check of a compact JWS, run before any signature work.
+ *
+ * Checks the segment count and base64url alphabet, the header's {@code alg}
+ * and {@code kid} against the key ring, and {@code exp}/{@code nbf} read
+ * straight from the decoded payload bytes. Failures are reported as a
+ * {@link Result} code: nothing is thrown and no JSON tree is built, so
+ * garbage, truncated and expired tokens are turned away for the cost of two
+ * small base64 decodes.
+ *
+ * The check only rejects tokens the full parser would reject as well. Anything
+ * it cannot read cheaply (escaped strings, fractional numbers, compressed
+ * payloads) is left for the parser to decide. Passing the check says nothing
+ * about authenticity: the signature is still verified afterwards.
+ */
+@Component
+public class TokenPreValidator {
+
+	/**
+	 * Outcome of the pre-check. Every value except {@link #VALID} means the
+	 * token must be rejected without verifying its signature.
+	 */
+	public enum Result {
+		VALID, MALFORMED, UNSUPPORTED_ALGORITHM, UNKNOWN_KEY, MISSING_EXPIRY, EXPIRED, NOT_YET_VALID;
+
+		public boolean isValid() {
+			return this == VALID;
+		}
+	}
+
+	// Far above any token we mint; bounds the work done for oversized headers
+	private static final int MAX_TOKEN_LENGTH = 8192;
+
+	private static final byte[] ALG = ascii("alg");
+	private static final byte[] KID = ascii("kid");
+	private static final byte[] ZIP = ascii("zip");
+	private static final byte[] B64 = ascii("b64");
+	private static final byte[] EXP = ascii("exp");
+	private static final byte[] NBF = ascii("nbf");
+
+	private final JwtKeyRing keyRing;
+
+	public TokenPreValidator(JwtKeyRing keyRing) {
+		this.keyRing = keyRing;
+	}
+
+	public Result check(String token) {
+		return check(token, System.currentTimeMillis());
+	}
+
+	Result check(String token, long nowMillis) {
+		if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+			return Result.MALFORMED;
+		}
+		int firstDot = token.indexOf('.');
+		int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+		if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0
+				|| !isBase64Url(token, 0, firstDot)
+				|| !isBase64Url(token, firstDot + 1, secondDot)
+				|| !isBase64Url(token, secondDot + 1, token.length())) {
+			return Result.MALFORMED;
+		}
+
+		Fields header = new Fields();
+		if (!readObject(decode(token, 0, firstDot), header)) {
+			return Result.MALFORMED;
+		}
+		Result headerResult = checkHeader(header);
+		if (headerResult != Result.VALID || header.payloadEncoded) {
+			return headerResult;
+		}
+
+		Fields payload = new Fields();
+		if (!readObject(decode(token, firstDot + 1, secondDot), payload)) {
+			return Result.MALFORMED;
+		}
+		return checkTimes(payload, nowMillis);
+	}
+
+	private Result checkHeader(Fields header) {
+		if (header.alg == null) {
+			return header.algUnreadable ? Result.VALID : Result.MALFORMED;
+		}
+		SigningAlgorithm algorithm = algorithm(header.alg);
+		if (algorithm == null) {
+			return Result.UNSUPPORTED_ALGORITHM;
+		}
+		if (header.kidUnreadable) {
+			return Result.VALID;
+		}
+		SigningKey key = keyRing.verificationKey(header.kid);
+		if (key == null) {
+			return Result.UNKNOWN_KEY;
+		}
+		return key.getAlgorithm() == algorithm ? Result.VALID : Result.UNSUPPORTED_ALGORITHM;
+	}
+
+	private static Result checkTimes(Fields payload, long nowMillis) {
+		// Same comparisons as the parser (no clock skew allowed); exp and nbf are in seconds
+		if (!payload.hasExp) {
+			return payload.expUnreadable ? Result.VALID : Result.MISSING_EXPIRY;
+		}
+		if (payload.exp < Long.MAX_VALUE / 1000 && nowMillis > payload.exp * 1000) {
+			return Result.EXPIRED;
+		}
+		if (payload.hasNbf && payload.nbf < Long.MAX_VALUE / 1000 && nowMillis < payload.nbf * 1000) {
+			return Result.NOT_YET_VALID;
+		}
+		return Result.VALID;
+	}
+
+	private static SigningAlgorithm algorithm(String alg) {
+		for (SigningAlgorithm candidate : SigningAlgorithm.values()) {
+			if (candidate.name().equals(alg)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Non-empty, unpadded base64url (RFC 7515 section 2) of a length that can be decoded.
+	 */
+	private static boolean isBase64Url(String token, int from, int to) {
+		if (to <= from || (to - from) % 4 == 1) {
+			return false;
+		}
+		for (int i = from; i < to; i++) {
+			char c = token.charAt(i);
+			if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static byte[] decode(String token, int from, int to) {
+		// Alphabet and length were checked, so this cannot throw
+		return Base64.getUrlDecoder().decode(token.substring(from, to));
+	}
+
+	private static byte[] ascii(String value) {
+		return value.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * The few header and payload members the pre-check looks at.
+	 */
+	private static final class Fields {
+		String alg;
+		boolean algUnreadable;
+		String kid;
+		boolean kidUnreadable;
+		// zip or b64 header: the payload is not plain base64url JSON
+		boolean payloadEncoded;
+		boolean hasExp;
+		boolean expUnreadable;
+		long exp;
+		boolean hasNbf;
+		long nbf;
+
+		void accept(byte[] json, int keyFrom, int keyTo, int valueFrom, int valueTo) {
+			if (keyEquals(json, keyFrom, keyTo, ALG)) {
+				alg = plainString(json, valueFrom, valueTo);
+				algUnreadable = alg == null;
+			} else if (keyEquals(json, keyFrom, keyTo, KID)) {
+				kid = plainString(json, valueFrom, valueTo);
+				kidUnreadable = kid == null;
+			} else if (keyEquals(json, keyFrom, keyTo, ZIP) || keyEquals(json, keyFrom, keyTo, B64)) {
+				payloadEncoded = true;
+			} else if (keyEquals(json, keyFrom, keyTo, EXP)) {
+				Long value = plainLong(json, valueFrom, valueTo);
+				hasExp = value != null;
+				expUnreadable = value == null;
+				exp = value == null ? 0 : value;
+			} else if (keyEquals(json, keyFrom, keyTo, NBF)) {
+				Long value = plainLong(json, valueFrom, valueTo);
+				hasNbf = value != null;
+				nbf = value == null ? 0 : value;
+			}
+		}
+
+		private static boolean keyEquals(byte[] json, int from, int to, byte[] key) {
+			if (to - from != key.length) {
+				return false;
+			}
+			for (int i = 0; i < key.length; i++) {
+				if (json[from + i] != key[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * @return The string value, or null if it is not a string or contains escapes
+		 */
+		private static String plainString(byte[] json, int from, int to) {
+			if (to - from < 2 || json[from] != '"') {
+				return null;
+			}
+			for (int i = from + 1; i < to - 1; i++) {
+				if (json[i] == '\\') {
+					return null;
+				}
+			}
+			return new String(json, from + 1, to - from - 2, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * @return The value if it is a plain integer that fits in a long, otherwise null
+		 */
+		private static Long plainLong(byte[] json, int from, int to) {
+			int i = from;
+			boolean negative = i < to && json[i] == '-';
+			if (negative) {
+				i++;
+			}
+			if (i == to || to - i > 18) {
+				return null;
+			}
+			long value = 0;
+			for (; i < to; i++) {
+				byte c = json[i];
+				if (c < '0' || c > '9') {
+					return null;
+				}
+				value = value * 10 + (c - '0');
+			}
+			return negative ? -value : value;
+		}
+	}
+
+	/**
+	 * Walk the members of a top-level JSON object, handing each key and raw value
+	 * range to the sink. Nested values are skipped, not parsed.
+	 *
+	 * @return false if the bytes are not a single JSON object
+	 */
+	private static boolean readObject(byte[] json, Fields sink) {
+		Cursor cursor = new Cursor(json);
+		cursor.skipWhitespace();
+		if (!cursor.consume('{')) {
+			return false;
+		}
+		cursor.skipWhitespace();
+		if (!cursor.consume('}')) {
+			while (true) {
+				cursor.skipWhitespace();
+				int keyFrom = cursor.pos + 1;
+				if (!cursor.skipString()) {
+					return false;
+				}
+				int keyTo = cursor.pos - 1;
+				cursor.skipWhitespace();
+				if (!cursor.consume(':')) {
+					return false;
+				}
+				cursor.skipWhitespace();
+				int valueFrom = cursor.pos;
+				if (!cursor.skipValue()) {
+					return false;
+				}
+				sink.accept(json, keyFrom, keyTo, valueFrom, cursor.pos);
+				cursor.skipWhitespace();
+				if (cursor.consume('}')) {
+					break;
+				}
+				if (!cursor.consume(',')) {
+					return false;
+				}
+			}
+		}
+		cursor.skipWhitespace();
+		return cursor.pos == json.length;
+	}
+
+	private static final class Cursor {
+		final byte[] json;
+		int pos;
+
+		Cursor(byte[] json) {
+			this.json = json;
+		}
+
+		boolean consume(char c) {
+			if (pos < json.length && json[pos] == c) {
+				pos++;
+				return true;
+			}
+			return false;
+		}
+
+		void skipWhitespace() {
+			while (pos < json.length && (json[pos] == ' ' || json[pos] == '\t' || json[pos] == '\n' || json[pos] == '\r')) {
+				pos++;
+			}
+		}
+
+		boolean skipString() {
+			if (!consume('"')) {
+				return false;
+			}
+			while (pos < json.length) {
+				byte c = json[pos];
+				if (c == '\\') {
+					pos += 2;
+				} else {
+					pos++;
+					if (c == '"') {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		boolean skipValue() {
+			if (pos >= json.length) {
+				return false;
+			}
+			byte c = json[pos];
+			if (c == '"') {
+				return skipString();
+			}
+			if (c == '{' || c == '[') {
+				return skipNested();
+			}
+			// Number or literal: taken up to the next delimiter, validated by the parser
+			int from = pos;
+			while (pos < json.length && json[pos] != ',' && json[pos] != '}' && json[pos] != ']'
+					&& json[pos] != ' ' && json[pos] != '\t' && json[pos] != '\n' && json[pos] != '\r') {
+				pos++;
+			}
+			return pos > from;
+		}
+
+		private boolean skipNested() {
+			int depth = 0;
+			while (pos < json.length) {
+				byte c = json[pos];
+				if (c == '"') {
+					if (!skipString()) {
+						return false;
+					}
+					continue;
+				}
+				pos++;
+				if (c == '{' || c == '[') {
+					depth++;
+				} else if (c == '}' || c == ']') {
+					if (--depth == 0) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.empsysauth.util;
+
+import java.util.Locale;
+
+/**
+ * Canonical form of a username for lookups and uniqueness: surrounding
+ * whitespace removed and case-folded. Existing rows were backfilled with this
+ * method by db.migration.V2_1__BackfillNormalizedUsername; changing it needs a
+ * migration that re-normalizes user_creds.
+ */
+public final class UsernameNormalizer {
+
+	private UsernameNormalizer() {
+	}
+
+	public static String normalize(String username) {
+		return username == null ? null : username.trim().toLowerCase(Locale.ROOT);
+	}
+}
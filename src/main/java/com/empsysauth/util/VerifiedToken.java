@@ -0,0 +1,48 @@
+package com.empsysauth.util;
+
+import io.jsonwebtoken.Claims;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a successful signature and expiry check on a bearer token.
+ * Instances are shared between requests through the verified-token cache,
+ * so they must be treated as read-only.
+ */
+@Value
+public class VerifiedToken {
+	String username;
+	// Token id, used for revocation; null for tokens minted before jtis were added
+	String jti;
+	long expiresAtMillis;
+	Claims claims;
+	// Built once from the roles claim and reused for every request with this token
+	List<GrantedAuthority> authorities;
+
+	public static VerifiedToken from(Claims claims) {
+		return new VerifiedToken(claims.getSubject(), claims.getId(), claims.getExpiration().getTime(), claims,
+				authorities(claims));
+	}
+
+	public boolean isExpired(long nowMillis) {
+		return nowMillis >= expiresAtMillis;
+	}
+
+	private static List<GrantedAuthority> authorities(Claims claims) {
+		Object roles = claims.get(JwtUtil.ROLES_CLAIM);
+		if (!(roles instanceof List<?> names) || names.isEmpty()) {
+			return List.of();
+		}
+		List<GrantedAuthority> authorities = new ArrayList<>(names.size());
+		for (Object name : names) {
+			if (name instanceof String role && !role.isEmpty()) {
+				authorities.add(new SimpleGrantedAuthority(role.startsWith("ROLE_") ? role : "ROLE_" + role));
+			}
+		}
+		return List.copyOf(authorities);
+	}
+}
@@ -0,0 +1,67 @@
+package com.empsysauth.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of verified bearer tokens.
+ *
+ * Entries are keyed by the SHA-256 of the compact token (the raw token is never
+ * kept in memory) and expire at the token's own {@code exp}, so a cached entry
+ * can never outlive the token it was built from.
+ */
+@Component
+public class VerifiedTokenCache {
+
+	private final Cache<String, VerifiedToken> cache;
+
+	public VerifiedTokenCache(@Value("${jwt.verified-cache.max-size:10000}") long maxSize) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(Expiry.creating((String key, VerifiedToken token) ->
+						Duration.ofMillis(Math.max(0, token.getExpiresAtMillis() - System.currentTimeMillis()))))
+				.build();
+	}
+
+	/**
+	 * Return the cached entry for the token, or compute it with the given loader.
+	 * Concurrent misses for the same token share a single loader call. A loader
+	 * returning {@code null} (invalid token) leaves nothing in the cache.
+	 */
+	public VerifiedToken get(String token, Function<String, VerifiedToken> loader) {
+		VerifiedToken verified = cache.get(hash(token), key -> loader.apply(token));
+		if (verified != null && verified.isExpired(System.currentTimeMillis())) {
+			// Caffeine expires lazily; never hand out a token past its exp
+			return null;
+		}
+		return verified;
+	}
+
+	public void invalidate(String token) {
+		cache.invalidate(hash(token));
+	}
+
+	public long size() {
+		return cache.estimatedSize();
+	}
+
+	static String hash(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package db.migration;
+
+import com.empsysauth.util.UsernameNormalizer;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Backfills user_creds.username_normalized through {@link UsernameNormalizer}, so
+ * existing rows get exactly the key runtime lookups compute, then builds the
+ * unique index on it.
+ *
+ * Usernames that collide after normalization cannot share an index entry. The
+ * migration refuses to guess which account wins and fails naming them; rename
+ * the duplicates first.
+ */
+public class V2_1__BackfillNormalizedUsername extends BaseJavaMigration {
+
+	private static final int BATCH_SIZE = 1000;
+
+	@Override
+	public void migrate(Context context) throws SQLException {
+		Connection connection = context.getConnection();
+		backfill(connection);
+		failOnDuplicates(connection);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE UNIQUE INDEX IF NOT EXISTS ux_user_creds_username_normalized "
+					+ "ON user_creds (username_normalized)");
+		}
+	}
+
+	private static void backfill(Connection connection) throws SQLException {
+		try (PreparedStatement select = connection.prepareStatement(
+				"SELECT id, username FROM user_creds WHERE username_normalized IS NULL AND username IS NOT NULL");
+				PreparedStatement update = connection.prepareStatement(
+						"UPDATE user_creds SET username_normalized = ? WHERE id = ?")) {
+			// Flyway runs the migration in a transaction, so the driver streams the rows
+			select.setFetchSize(BATCH_SIZE);
+			int pending = 0;
+			try (ResultSet rs = select.executeQuery()) {
+				while (rs.next()) {
+					update.setString(1, UsernameNormalizer.normalize(rs.getString("username")));
+					update.setLong(2, rs.getLong("id"));
+					update.addBatch();
+					if (++pending == BATCH_SIZE) {
+						update.executeBatch();
+						pending = 0;
+					}
+				}
+			}
+			if (pending > 0) {
+				update.executeBatch();
+			}
+		}
+	}
+
+	private static void failOnDuplicates(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				ResultSet rs = statement.executeQuery(
+						"SELECT string_agg(username_normalized, ', ') FROM (SELECT username_normalized FROM user_creds "
+								+ "WHERE username_normalized IS NOT NULL GROUP BY username_normalized HAVING count(*) > 1) d")) {
+			String duplicates = rs.next() ? rs.getString(1) : null;
+			if (duplicates != null) {
+				throw new IllegalStateException("Usernames collide after normalization: " + duplicates);
+			}
+		}
+	}
+}
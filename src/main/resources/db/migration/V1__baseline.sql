@@ -0,0 +1,13 @@
+-- Schema as previously created by hibernate.ddl-auto=update.
+-- Idempotent so it also applies cleanly to existing databases (baseline-version=0).
+
+CREATE TABLE IF NOT EXISTS user_creds (
+    id            BIGSERIAL PRIMARY KEY,
+    username      VARCHAR(255),
+    password_hash VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS roles (
+    id        BIGSERIAL PRIMARY KEY,
+    role_name VARCHAR(255) NOT NULL UNIQUE
+);
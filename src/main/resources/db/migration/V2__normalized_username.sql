@@ -0,0 +1,5 @@
+-- Case-folded, trimmed username used for login lookups (see UsernameNormalizer).
+-- Backfilled and indexed by db.migration.V2_1__BackfillNormalizedUsername, which
+-- uses the Java normalizer itself: SQL lower()/btrim() do not fold the same way.
+
+ALTER TABLE user_creds ADD COLUMN IF NOT EXISTS username_normalized VARCHAR(255);
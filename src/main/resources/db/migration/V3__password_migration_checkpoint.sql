@@ -0,0 +1,11 @@
+-- Progress of PasswordMigrationJob, committed with each batch so a restarted job resumes.
+
+CREATE TABLE IF NOT EXISTS password_migration_checkpoint (
+    job_name    VARCHAR(64) PRIMARY KEY,
+    last_id     BIGINT      NOT NULL,
+    scanned     BIGINT      NOT NULL,
+    migrated    BIGINT      NOT NULL,
+    started_at  TIMESTAMP   NOT NULL,
+    updated_at  TIMESTAMP   NOT NULL,
+    finished_at TIMESTAMP
+);
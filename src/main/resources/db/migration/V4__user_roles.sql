@@ -0,0 +1,9 @@
+-- Role assignments; read at login and embedded in the token's "roles" claim.
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id BIGINT NOT NULL REFERENCES user_creds (id) ON DELETE CASCADE,
+    role_id BIGINT NOT NULL REFERENCES roles (id) ON DELETE CASCADE,
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_user_roles_role_id ON user_roles (role_id);
@@ -0,0 +1,18 @@
+-- Rotating refresh tokens. Only the SHA-256 of each token is stored.
+-- All tokens descending from one login share a family_id; presenting a token
+-- that was already used revokes the whole family (reuse detection).
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id          BIGSERIAL   PRIMARY KEY,
+    token_hash  VARCHAR(64) NOT NULL UNIQUE,
+    family_id   UUID        NOT NULL,
+    user_id     BIGINT      NOT NULL REFERENCES user_creds (id) ON DELETE CASCADE,
+    issued_at   TIMESTAMP   NOT NULL,
+    expires_at  TIMESTAMP   NOT NULL,
+    used_at     TIMESTAMP,
+    revoked_at  TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS ix_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+CREATE INDEX IF NOT EXISTS ix_refresh_tokens_family_id ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS ix_refresh_tokens_user_id ON refresh_tokens (user_id);
@@ -0,0 +1,89 @@
+package com.empsysauth.controller;
+
+import com.empsysauth.config.SecurityConfig;
+import com.empsysauth.repository.UserCredsRepository;
+import com.empsysauth.service.BCryptCalibration;
+import com.empsysauth.service.BulkUserImportService;
+import com.empsysauth.service.CredentialCache;
+import com.empsysauth.service.PasswordService;
+import com.empsysauth.service.RefreshTokenService;
+import com.empsysauth.service.RoleService;
+import com.empsysauth.service.TokenVerificationService;
+import com.empsysauth.service.UsernameIndex;
+import com.empsysauth.util.AuthMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AdminController.class, properties = "auth.bcrypt.cost=4")
+@Import({ SecurityConfig.class, BCryptCalibration.class, AdminControllerSecurityTests.Metrics.class })
+class AdminControllerSecurityTests {
+
+	@TestConfiguration
+	static class Metrics {
+		@Bean
+		AuthMetrics authMetrics() {
+			return new AuthMetrics(new SimpleMeterRegistry());
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockitoBean
+	private TokenVerificationService tokenVerificationService;
+	@MockitoBean
+	private UserCredsRepository userCredsRepository;
+	@MockitoBean
+	private PasswordService passwordService;
+	@MockitoBean
+	private UsernameIndex usernameIndex;
+	@MockitoBean
+	private CredentialCache credentialCache;
+	@MockitoBean
+	private BulkUserImportService bulkUserImportService;
+	@MockitoBean
+	private RoleService roleService;
+	@MockitoBean
+	private RefreshTokenService refreshTokenService;
+
+	private static MockHttpServletRequestBuilder grantAdmin() {
+		return put("/api/admin/users/mallory/roles").contentType(MediaType.APPLICATION_JSON).content("[\"ADMIN\"]");
+	}
+
+	@Test
+	void anonymousAndNonAdminCallersCannotAssignRoles() throws Exception {
+		mockMvc.perform(grantAdmin()).andExpect(status().isForbidden());
+		mockMvc.perform(grantAdmin().header("Authorization", "Bearer forged")).andExpect(status().isForbidden());
+		mockMvc.perform(grantAdmin().with(user("bob").roles("USER"))).andExpect(status().isForbidden());
+
+		verify(roleService, never()).assignRoles(anyString(), anyList());
+	}
+
+	@Test
+	void adminCanAssignRoles() throws Exception {
+		when(roleService.assignRoles(any(), any())).thenReturn(List.of("ADMIN"));
+
+		mockMvc.perform(grantAdmin().with(user("root").roles("ADMIN"))).andExpect(status().isOk());
+	}
+}
@@ -0,0 +1,85 @@
+package com.empsysauth.controller;
+
+import com.empsysauth.service.JwtService;
+import com.empsysauth.service.LoginRateLimiter;
+import com.empsysauth.service.TokenDenylist;
+import com.empsysauth.service.TokenIntrospectionService;
+import com.empsysauth.service.TokenVerificationService;
+import com.empsysauth.util.AuthMetrics;
+import com.empsysauth.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs on a real Tomcat, because X-Forwarded-For is resolved by its RemoteIpValve
+ * (server.forward-headers-strategy=native in application.properties), not by MVC.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		classes = { AuthController.class, LoginRateLimiter.class, AuthControllerForwardedForTests.Metrics.class },
+		properties = { "auth.login-throttle.ip.capacity=2", "auth.login-throttle.ip.refill-per-minute=1" })
+@ImportAutoConfiguration({ ServletWebServerFactoryAutoConfiguration.class,
+		EmbeddedWebServerFactoryCustomizerAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+		WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class })
+class AuthControllerForwardedForTests {
+
+	@TestConfiguration
+	static class Metrics {
+		@Bean
+		AuthMetrics authMetrics() {
+			return new AuthMetrics(new SimpleMeterRegistry());
+		}
+	}
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@MockitoBean
+	private JwtService jwtService;
+	@MockitoBean
+	private JwtUtil jwtUtil;
+	@MockitoBean
+	private TokenVerificationService tokenVerificationService;
+	@MockitoBean
+	private TokenDenylist tokenDenylist;
+	@MockitoBean
+	private TokenIntrospectionService tokenIntrospectionService;
+
+	private HttpStatus login(String username, String forwardedFor) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.set("X-Forwarded-For", forwardedFor);
+		String body = "{\"username\": \"" + username + "\", \"password\": \"secret\"}";
+		return HttpStatus.valueOf(restTemplate.postForEntity("/api/auth/login", new HttpEntity<>(body, headers), String.class)
+				.getStatusCode().value());
+	}
+
+	@Test
+	void clientsBehindTheSameProxyGetSeparateIpBuckets() {
+		// The test client connects from loopback, which Tomcat trusts as a proxy by default
+		assertEquals(HttpStatus.OK, login("user1", "203.0.113.10"));
+		assertEquals(HttpStatus.OK, login("user2", "203.0.113.10"));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("user3", "203.0.113.10"));
+
+		assertEquals(HttpStatus.OK, login("user4", "198.51.100.20"));
+		assertEquals(HttpStatus.OK, login("user5", "198.51.100.20"));
+	}
+}
@@ -0,0 +1,75 @@
+package com.empsysauth.filter;
+
+import com.empsysauth.service.TokenVerificationService;
+import com.empsysauth.util.AuthMetrics;
+import com.empsysauth.util.VerifiedToken;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtFilterTests {
+
+	private TokenVerificationService tokenVerificationService;
+	private JwtFilter filter;
+	private VerifiedToken verified;
+
+	@BeforeEach
+	void setUp() {
+		verified = new VerifiedToken("alice", "jti-1", Long.MAX_VALUE,
+				Jwts.claims().subject("alice").build(), List.of());
+		tokenVerificationService = mock(TokenVerificationService.class);
+		when(tokenVerificationService.verify("token")).thenReturn(verified);
+		filter = new JwtFilter();
+		ReflectionTestUtils.setField(filter, "tokenVerificationService", tokenVerificationService);
+		ReflectionTestUtils.setField(filter, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+	}
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void tokenIsVerifiedOncePerRequestEvenWhenTheFilterIsRegisteredTwice() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/roles");
+		request.addHeader("Authorization", "Bearer token");
+
+		// Servlet registration plus security chain, as before the fix
+		new MockFilterChain(new HttpServlet() {
+		}, filter, filter)
+				.doFilter(request, new MockHttpServletResponse());
+
+		verify(tokenVerificationService, times(1)).verify("token");
+		assertSame(verified, request.getAttribute(JwtFilter.VERIFIED_TOKEN_ATTRIBUTE));
+		assertEquals("alice", SecurityContextHolder.getContext().getAuthentication().getName());
+	}
+
+	@Test
+	void publicPathsAreNotVerified() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+		request.addHeader("Authorization", "Bearer token");
+
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+		verify(tokenVerificationService, never()).verify(anyString());
+	}
+}
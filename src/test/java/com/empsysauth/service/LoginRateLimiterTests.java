@@ -0,0 +1,40 @@
+package com.empsysauth.service;
+
+import com.empsysauth.exception.LoginRejectedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTests {
+
+	@Test
+	void rejectsUsernameOnceBurstIsSpent() {
+		LoginRateLimiter limiter = new LoginRateLimiter(3, 1, 100, 60, 1000);
+
+		for (int i = 0; i < 3; i++) {
+			limiter.checkLogin("Alice", "10.0.0." + i);
+		}
+		LoginRejectedException e = assertThrows(LoginRejectedException.class,
+				() -> limiter.checkLogin(" alice ", "10.0.0.9"));
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+		assertTrue(e.getRetryAfterSeconds() >= 1);
+		assertEquals(1L, limiter.stats().get("rejectedByUsername"));
+		// Other usernames are unaffected
+		limiter.checkLogin("bob", "10.0.0.9");
+	}
+
+	@Test
+	void rejectsIpAcrossUsernames() {
+		LoginRateLimiter limiter = new LoginRateLimiter(100, 60, 2, 1, 1000);
+
+		limiter.checkLogin("user1", "192.168.1.1");
+		limiter.checkLogin("user2", "192.168.1.1");
+		assertThrows(LoginRejectedException.class, () -> limiter.checkLogin("user3", "192.168.1.1"));
+
+		assertEquals(1L, limiter.stats().get("rejectedByIp"));
+	}
+}
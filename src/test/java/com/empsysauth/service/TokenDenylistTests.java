@@ -0,0 +1,52 @@
+package com.empsysauth.service;
+
+import com.empsysauth.util.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class TokenDenylistTests {
+
+	private TokenDenylist denylist;
+
+	@BeforeEach
+	void setUp() {
+		denylist = new TokenDenylist();
+		ReflectionTestUtils.setField(denylist, "jdbcTemplate", mock(JdbcTemplate.class));
+	}
+
+	private static VerifiedToken token(String jti, long expiresAtMillis) {
+		return new VerifiedToken("alice", jti, expiresAtMillis, null, List.of());
+	}
+
+	@Test
+	void rejectsOnlyRevokedTokens() {
+		long exp = System.currentTimeMillis() + 600_000;
+		denylist.revoke("jti-1", exp);
+
+		assertTrue(denylist.isRevoked(token("jti-1", exp)));
+		assertFalse(denylist.isRevoked(token("jti-2", exp)));
+		assertFalse(denylist.isRevoked(token(null, exp)));
+	}
+
+	@Test
+	void dropsBucketsOnceTheirTokensExpired() {
+		long now = System.currentTimeMillis();
+		denylist.revoke("short", now + 1_000);
+		denylist.revoke("long", now + 600_000);
+
+		denylist.evictExpired(now + 120_000);
+
+		assertEquals(1, denylist.stats().get("entries"));
+		assertEquals(1, denylist.stats().get("buckets"));
+		assertTrue(denylist.isRevoked(token("long", now + 600_000)));
+	}
+}
@@ -0,0 +1,84 @@
+package com.empsysauth.service;
+
+import com.empsysauth.dto.TokenIntrospection;
+import com.empsysauth.util.VerifiedToken;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenIntrospectionServiceTests {
+
+	private TokenIntrospectionService service;
+
+	@BeforeEach
+	void setUp() {
+		// Tokens named "valid-<n>" verify as user-<n>; anything else is invalid
+		TokenVerificationService verification = mock(TokenVerificationService.class);
+		when(verification.verify(anyString())).thenAnswer(invocation -> {
+			String token = invocation.getArgument(0);
+			if (!token.startsWith("valid-")) {
+				return null;
+			}
+			String username = "user-" + token.substring("valid-".length());
+			return new VerifiedToken(username, token, 4_000_000_000_000L,
+					Jwts.claims().subject(username).build(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
+		});
+		service = new TokenIntrospectionService();
+		ReflectionTestUtils.setField(service, "tokenVerificationService", verification);
+		ReflectionTestUtils.setField(service, "maxBatchSize", 100);
+		ReflectionTestUtils.setField(service, "parallelism", 3);
+		ReflectionTestUtils.setField(service, "queueDepth", 1);
+		service.init();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void resultsFollowRequestOrderAcrossChunks() {
+		List<String> batch = new ArrayList<>();
+		for (int i = 0; i < 99; i++) {
+			batch.add(i % 3 == 0 ? "garbage-" + i : "valid-" + i);
+		}
+
+		List<TokenIntrospection> results = service.introspect(batch);
+
+		assertEquals(batch.size(), results.size());
+		for (int i = 0; i < batch.size(); i++) {
+			TokenIntrospection result = results.get(i);
+			if (i % 3 == 0) {
+				assertFalse(result.isActive());
+				assertNull(result.getSub());
+			} else {
+				assertTrue(result.isActive());
+				assertEquals("user-" + i, result.getSub());
+				assertEquals(4_000_000_000L, result.getExp());
+				assertEquals(List.of("USER"), result.getRoles());
+			}
+		}
+	}
+
+	@Test
+	void oversizedBatchesAreRefused() {
+		assertEquals(List.of(), service.introspect(List.of()));
+		assertThrows(IllegalArgumentException.class, () -> service.introspect(Collections.nCopies(101, "valid-1")));
+	}
+}
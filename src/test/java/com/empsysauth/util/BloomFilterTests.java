@@ -0,0 +1,35 @@
+package com.empsysauth.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+	@Test
+	void neverReportsAddedValueAsAbsent() {
+		BloomFilter filter = BloomFilter.create(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user" + i);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			assertTrue(filter.mightContain("user" + i));
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTarget() {
+		BloomFilter filter = BloomFilter.create(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user" + i);
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("stranger" + i)) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+		assertTrue(filter.currentFpp() < 0.02);
+	}
+}
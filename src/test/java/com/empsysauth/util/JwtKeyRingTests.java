@@ -0,0 +1,97 @@
+package com.empsysauth.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtKeyRingTests {
+
+	@TempDir
+	Path keyDir;
+
+	private JwtKeyRing keyRing;
+	private JwtUtil jwtUtil;
+
+	@BeforeEach
+	void setUp() {
+		keyRing = newKeyRing(Duration.ofHours(2));
+		jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+		ReflectionTestUtils.setField(jwtUtil, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+		jwtUtil.init();
+	}
+
+	private JwtKeyRing newKeyRing(Duration overlap) {
+		JwtKeyRing ring = new JwtKeyRing();
+		ReflectionTestUtils.setField(ring, "keyDir", keyDir.toString());
+		ReflectionTestUtils.setField(ring, "algorithm", SigningAlgorithm.ES256);
+		ReflectionTestUtils.setField(ring, "overlap", overlap);
+		ReflectionTestUtils.setField(ring, "activationDelay", Duration.ZERO);
+		ring.init();
+		return ring;
+	}
+
+	@Test
+	void tokensMintedBeforeRotationStillVerify() throws Exception {
+		String before = jwtUtil.generateToken("alice");
+		String oldKid = keyRing.activeKey().getKid();
+
+		keyRing.rotate();
+
+		assertNotEquals(oldKid, keyRing.activeKey().getKid());
+		assertEquals(2, keyRing.verificationKeys().size());
+		assertEquals("alice", jwtUtil.extractUsername(before));
+		assertTrue(jwtUtil.validateToken(jwtUtil.generateToken("bob")));
+	}
+
+	@Test
+	void rotatedKeyIsPublishedBeforeItSigns() throws Exception {
+		String oldKid = keyRing.activeKey().getKid();
+		ReflectionTestUtils.setField(keyRing, "activationDelay", Duration.ofMinutes(20));
+
+		keyRing.rotate();
+		JwtKeyRing otherInstance = newKeyRing(Duration.ofHours(2));
+		ReflectionTestUtils.setField(otherInstance, "activationDelay", Duration.ofMinutes(20));
+		otherInstance.rotateIfDue();
+
+		// Both instances verify the new kid but keep signing with the old one
+		assertEquals(oldKid, keyRing.activeKey().getKid());
+		assertEquals(oldKid, otherInstance.activeKey().getKid());
+		assertEquals(2, keyRing.verificationKeys().size());
+		assertEquals(keyRing.verificationKeys(), otherInstance.verificationKeys());
+	}
+
+	@Test
+	void rotatedKeysSurviveRestart() throws Exception {
+		keyRing.rotate();
+		String token = jwtUtil.generateToken("alice");
+
+		JwtKeyRing restarted = newKeyRing(Duration.ofHours(2));
+
+		assertEquals(keyRing.activeKey().getKid(), restarted.activeKey().getKid());
+		assertTrue(restarted.verificationKey(keyRing.activeKey().getKid()) != null);
+		assertEquals("alice", jwtUtil.extractUsername(token));
+	}
+
+	@Test
+	void keysAreDroppedAfterOverlapWindow() throws Exception {
+		String before = jwtUtil.generateToken("alice");
+		ReflectionTestUtils.setField(keyRing, "overlap", Duration.ZERO);
+
+		keyRing.rotate();
+		keyRing.rotateIfDue();
+
+		assertEquals(1, keyRing.verificationKeys().size());
+		assertFalse(jwtUtil.validateToken(before));
+	}
+}
@@ -0,0 +1,83 @@
+package com.empsysauth.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenPreValidatorTests {
+
+	@TempDir
+	Path keyDir;
+
+	private JwtKeyRing keyRing;
+	private JwtUtil jwtUtil;
+	private TokenPreValidator validator;
+
+	@BeforeEach
+	void setUp() {
+		keyRing = new JwtKeyRing();
+		ReflectionTestUtils.setField(keyRing, "keyDir", keyDir.toString());
+		ReflectionTestUtils.setField(keyRing, "algorithm", SigningAlgorithm.ES256);
+		ReflectionTestUtils.setField(keyRing, "overlap", Duration.ofHours(2));
+		keyRing.init();
+		jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "keyRing", keyRing);
+		ReflectionTestUtils.setField(jwtUtil, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+		jwtUtil.init();
+		validator = new TokenPreValidator(keyRing);
+	}
+
+	@Test
+	void structurallyBrokenTokensAreRejected() {
+		// Claim names inside string values must not be mistaken for real claims
+		String token = jwtUtil.generateToken("alice", List.of("\"exp\":1,\"nbf\":99999999999"));
+		String[] parts = token.split("\\.");
+
+		assertEquals(TokenPreValidator.Result.VALID, validator.check(token));
+		assertEquals(TokenPreValidator.Result.MALFORMED, validator.check(parts[0] + "." + parts[1]));
+		assertEquals(TokenPreValidator.Result.MALFORMED, validator.check(parts[0] + "." + parts[1] + "."));
+		assertEquals(TokenPreValidator.Result.MALFORMED, validator.check(token + ".x"));
+		assertEquals(TokenPreValidator.Result.MALFORMED, validator.check(parts[0] + ".*" + parts[1] + "." + parts[2]));
+		assertEquals(TokenPreValidator.Result.MALFORMED, validator.check(parts[0] + "." + parts[1].substring(0, 10) + "." + parts[2]));
+		assertEquals(TokenPreValidator.Result.MALFORMED, validator.check("Bearer"));
+	}
+
+	@Test
+	void headerAndTimeClaimsAreCheckedWithoutTheSignature() {
+		String token = jwtUtil.generateToken("alice");
+		String kid = keyRing.activeKey().getKid();
+		long now = System.currentTimeMillis();
+		String claims = "{\"sub\":\"alice\",\"exp\":" + (now / 1000 + 60) + "}";
+
+		assertEquals(TokenPreValidator.Result.EXPIRED, validator.check(token, now + Duration.ofHours(1).toMillis()));
+		assertEquals(TokenPreValidator.Result.VALID,
+				validator.check(compact("{\"alg\":\"ES256\",\"kid\":\"" + kid + "\"}", claims), now));
+		assertEquals(TokenPreValidator.Result.UNSUPPORTED_ALGORITHM,
+				validator.check(compact("{\"alg\":\"none\"}", claims), now));
+		assertEquals(TokenPreValidator.Result.UNSUPPORTED_ALGORITHM,
+				validator.check(compact("{\"alg\":\"RS256\",\"kid\":\"" + kid + "\"}", claims), now));
+		assertEquals(TokenPreValidator.Result.UNKNOWN_KEY,
+				validator.check(compact("{\"alg\":\"ES256\",\"kid\":\"retired\"}", claims), now));
+		assertEquals(TokenPreValidator.Result.MISSING_EXPIRY,
+				validator.check(compact("{\"alg\":\"ES256\",\"kid\":\"" + kid + "\"}", "{\"sub\":\"alice\"}"), now));
+		assertEquals(TokenPreValidator.Result.NOT_YET_VALID,
+				validator.check(compact("{\"alg\":\"ES256\",\"kid\":\"" + kid + "\"}",
+						"{\"sub\":\"alice\",\"nbf\":" + (now / 1000 + 30) + ",\"exp\":" + (now / 1000 + 60) + "}"), now));
+	}
+
+	private static String compact(String header, String payload) {
+		Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+		return encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+				+ encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".c2ln";
+	}
+}
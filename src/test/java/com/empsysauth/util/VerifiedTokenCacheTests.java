@@ -0,0 +1,62 @@
+package com.empsysauth.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class VerifiedTokenCacheTests {
+
+	private static VerifiedToken token(String username, long expiresAtMillis) {
+		Claims claims = Jwts.claims()
+				.subject(username)
+				.expiration(new Date(expiresAtMillis))
+				.build();
+		return VerifiedToken.from(claims);
+	}
+
+	@Test
+	void parsesEachTokenOnlyOnce() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100);
+		AtomicInteger parses = new AtomicInteger();
+		VerifiedToken verified = token("alice", System.currentTimeMillis() + 60_000);
+
+		for (int i = 0; i < 5; i++) {
+			assertSame(verified, cache.get("token-a", t -> {
+				parses.incrementAndGet();
+				return verified;
+			}));
+		}
+
+		assertEquals(1, parses.get());
+	}
+
+	@Test
+	void doesNotCacheInvalidTokens() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100);
+		AtomicInteger parses = new AtomicInteger();
+
+		for (int i = 0; i < 3; i++) {
+			assertNull(cache.get("garbage", t -> {
+				parses.incrementAndGet();
+				return null;
+			}));
+		}
+
+		assertEquals(3, parses.get());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void neverReturnsExpiredToken() {
+		VerifiedTokenCache cache = new VerifiedTokenCache(100);
+
+		assertNull(cache.get("expired", t -> token("bob", System.currentTimeMillis() - 1)));
+	}
+}
@@ -48,8 +48,8 @@ elif [ "$HTTP_CODE" == "401" ] || [ "$HTTP_CODE" == "400" ]; then
   echo "2. Password is incorrect"
   echo "3. Password in database is plain text but system expects BCrypt hash"
   echo ""
-  echo "Try creating/updating the user with:"
-  echo "  curl -X POST $BASE_URL/api/admin/users -H 'Content-Type: application/json' -d '{\"username\":\"$USERNAME\",\"password\":\"$PASSWORD\"}'"
+  echo "Try creating/updating the user with an admin token:"
+  echo "  curl -X POST $BASE_URL/api/admin/users -H 'Authorization: Bearer <admin token>' -H 'Content-Type: application/json' -d '{\"username\":\"$USERNAME\",\"password\":\"$PASSWORD\"}'"
 else
   echo -e "${RED}✗ Unexpected Error ($HTTP_CODE)${NC}"
   echo "Response: $BODY"